@@ -0,0 +1,45 @@
+package othello.bench;
+
+import othello.BitBoard;
+import othello.Board;
+import othello.Piece;
+import othello.tools.BenchmarkPositions;
+
+import java.util.List;
+
+// The fixed benchmark positions of one game phase, on either board implementation.
+final class BenchState {
+    private BenchState() {
+    }
+
+    static List<BenchmarkPositions.Position> positions(String phase) {
+        return switch (phase) {
+            case "opening" -> BenchmarkPositions.opening();
+            case "midgame" -> BenchmarkPositions.midgame();
+            case "endgame" -> BenchmarkPositions.endgame();
+            default -> throw new IllegalArgumentException("unknown phase: " + phase);
+        };
+    }
+
+    // "BitBoard" keeps the generated bitboard, "Board" copies it onto the original Piece[][] board
+    static Board copy(Board source, String boardType) {
+        if (boardType.equals("BitBoard")) {
+            return BitBoard.of(source);
+        }
+        Board board = new Board(source.getRows(), source.getColumns());
+        for (int r = 0; r < source.getRows(); r++) {
+            for (int c = 0; c < source.getColumns(); c++) {
+                board.setPiece(r, c, source.getPiece(r, c));
+            }
+        }
+        return board;
+    }
+
+    static Piece[] sidesToMove(List<BenchmarkPositions.Position> positions) {
+        Piece[] sides = new Piece[positions.size()];
+        for (int i = 0; i < sides.length; i++) {
+            sides[i] = positions.get(i).toMove();
+        }
+        return sides;
+    }
+}
@@ -0,0 +1,126 @@
+package othello.bench;
+
+import othello.AIPlayer;
+import othello.Board;
+import othello.Piece;
+import othello.tools.BenchmarkPositions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Board operations on the four fixed positions of each phase; every score is per position set.
+// placePiece changes the board, so it is measured on a fresh clone: subtract cloneBoard for its own cost.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+    @Param({"opening", "midgame", "endgame"})
+    public String phase;
+
+    @Param({"Board", "BitBoard"})
+    public String boardType;
+
+    private Board[] boards;
+    private Piece[] toMove;
+    private int[] firstMove;
+    private AIPlayer[] players;
+
+    @Setup
+    public void setUp() {
+        List<BenchmarkPositions.Position> positions = BenchState.positions(phase);
+        boards = new Board[positions.size()];
+        toMove = BenchState.sidesToMove(positions);
+        firstMove = new int[boards.length];
+        players = new AIPlayer[boards.length];
+        int[] moves = new int[64];
+        for (int i = 0; i < boards.length; i++) {
+            boards[i] = BenchState.copy(positions.get(i).board(), boardType);
+            boards[i].generateMoves(toMove[i], moves);
+            firstMove[i] = moves[0];
+            players[i] = new AIPlayer("AI", toMove[i]);
+        }
+    }
+
+    @Benchmark
+    public int canPlacePiece() {
+        int count = 0;
+        for (int i = 0; i < boards.length; i++) {
+            Board board = boards[i];
+            for (int r = 0; r < board.getRows(); r++) {
+                for (int c = 0; c < board.getColumns(); c++) {
+                    if (board.canPlacePiece(r, c, toMove[i])) count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public void cloneBoard(Blackhole blackhole) {
+        for (Board board : boards) {
+            blackhole.consume(board.cloneBoard());
+        }
+    }
+
+    @Benchmark
+    public void placePiece(Blackhole blackhole) {
+        for (int i = 0; i < boards.length; i++) {
+            Board board = boards[i].cloneBoard();
+            board.placePiece(firstMove[i] / board.getColumns(), firstMove[i] % board.getColumns(), toMove[i]);
+            blackhole.consume(board);
+        }
+    }
+
+    @Benchmark
+    public long makeUnmakeMove() {
+        long hash = 0;
+        for (int i = 0; i < boards.length; i++) {
+            boards[i].makeMove(firstMove[i], toMove[i]);
+            hash ^= boards[i].getHash();
+            boards[i].unmakeMove();
+        }
+        return hash;
+    }
+
+    @Benchmark
+    public int isOver() {
+        int over = 0;
+        for (Board board : boards) {
+            if (board.isOver()) over++;
+        }
+        return over;
+    }
+
+    @Benchmark
+    public int countPieces() {
+        int count = 0;
+        for (Board board : boards) {
+            count += board.countPieces(Piece.BLACK) - board.countPieces(Piece.WHITE);
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int heuristic() {
+        int sum = 0;
+        for (int i = 0; i < boards.length; i++) {
+            sum += players[i].heuristic(boards[i]);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,81 @@
+package othello.bench;
+
+import othello.AIPlayer;
+import othello.Board;
+import othello.TranspositionTable;
+import othello.tools.BenchmarkPositions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// AIPlayer.calculateBestMove on the four fixed positions of each phase; every score is per position set.
+// searchBestMove is the same search without the board copy and the SearchStats built around it.
+// Every invocation starts from an empty transposition table, so each one is a full search and not
+// a lookup of the result the previous invocation stored.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+    @Param({"opening", "midgame", "endgame"})
+    public String phase;
+
+    @Param({"MINIMAX", "ALPHABETA"})
+    public AIPlayer.Algorithm algorithm;
+
+    @Param({"2", "4", "6"})
+    public int depth;
+
+    private Board[] boards;
+    private AIPlayer[] players;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<BenchmarkPositions.Position> positions = BenchState.positions(phase);
+        boards = new Board[positions.size()];
+        players = new AIPlayer[boards.length];
+        for (int i = 0; i < boards.length; i++) {
+            boards[i] = positions.get(i).board().cloneBoard();
+            players[i] = new AIPlayer("AI", positions.get(i).toMove(), depth, algorithm);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTables() {
+        for (AIPlayer player : players) {
+            TranspositionTable table = player.getTranspositionTable();
+            if (table != null) table.clear();
+        }
+    }
+
+    @Benchmark
+    public void calculateBestMove(Blackhole blackhole) {
+        for (int i = 0; i < boards.length; i++) {
+            blackhole.consume(players[i].calculateBestMove(boards[i], depth));
+        }
+    }
+
+    @Benchmark
+    public int searchBestMove() {
+        int sum = 0;
+        for (int i = 0; i < boards.length; i++) {
+            sum += players[i].searchBestMove(boards[i], depth);
+        }
+        return sum;
+    }
+}
@@ -1,12 +1,14 @@
 module vn.edu.hcmuaf.fit.doannmttnt {
     requires javafx.controls;
     requires javafx.fxml;
+    requires jdk.jfr;
 
     requires org.controlsfx.controls;
     requires org.kordamp.bootstrapfx.core;
 
     opens vn.edu.hcmuaf.fit.doannmttnt to javafx.fxml;
     exports vn.edu.hcmuaf.fit.doannmttnt;
-    opens othello to javafx.graphics;
+    exports othello;
+    opens othello.ui to javafx.graphics;
 
 }
\ No newline at end of file
@@ -1,6 +1,12 @@
 package othello;
 
-public class AIPlayer extends Player {
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+public class AIPlayer extends Player implements AutoCloseable {
     private static final int[][] WEIGHTS = {
             {20, -3, 11, 8, 8, 11, -3, 20},
             {-3, -7, -4, 1, 1, -4, -7, -3},
@@ -12,12 +18,79 @@ public class AIPlayer extends Player {
             {20, -3, 11, 8, 8, 11, -3, 20}
     };
 
+    // empties the game and the server solve exactly; the solver itself is off until setEndgameSolver
+    public static final int DEFAULT_ENDGAME_EMPTIES = 14;
+
     // Add algorithm selection
-    public enum Algorithm { MINIMAX, ALPHABETA }
+    public enum Algorithm { MINIMAX, ALPHABETA, PARALLEL, PVS }
+
+    // PVS window bounds; far outside any heuristic value and safe to negate
+    private static final int INFINITY = 1_000_000_000;
 
     private int defaultDepth = 4;
+    private int[] squareWeights;
+    private int squareWeightRows;
+    private int squareWeightColumns;
+    // table-driven evaluation for 8x8 bitboards; null = WEIGHTS and mobility
+    private PatternEvaluator patternEvaluator;
     private Algorithm algorithm = Algorithm.MINIMAX; // default
 
+    // per-ply move lists, reused across searches
+    private int[][] moveBuffers = new int[0][0];
+
+    // alpha-beta only; 0 MB disables it
+    private int transpositionTableMb = 16;
+    private TranspositionTable transpositionTable;
+    private long nodes;
+    private long evaluations;
+
+    // nodes and time of each finished iteration of the last search, for SearchStats
+    private int iterations;
+    private int[] iterationDepths = new int[0];
+    private long[] iterationNodes = new long[0];
+    private long[] iterationNanos = new long[0];
+
+    // iterative deepening with a think-time budget; 0 = fixed depth
+    private long thinkTimeMs = 0;
+    private long deadline = Long.MAX_VALUE;
+    private boolean aborted;
+    private int completedDepth;
+
+    // stop() from another thread ends the search like a timeout; helpers watch their owner's flag
+    private volatile boolean stopRequested;
+    private AIPlayer stopOwner = this;
+    private Consumer<SearchProgress> searchListener;
+
+    // alpha-beta move ordering and its statistics
+    private boolean moveOrderingEnabled = true;
+    private MoveOrdering moveOrdering;
+    private long cutoffs;
+    private long firstMoveCutoffs;
+    private int bestValue;
+
+    // PVS: half-width of the first window around the previous iteration's value; 0 = full window
+    private int aspirationWindow = 32;
+    private long researches;
+
+    // book moves are played without searching; null = no book
+    private OpeningBook openingBook;
+
+    // 8x8 positions with at most this many empty squares are solved exactly (0 = never)
+    private int endgameEmpties;
+    private boolean endgameWld;
+    private EndgameSolver endgameSolver;
+    private volatile long endgameDeadline;
+
+    // PARALLEL: alpha-beta split over a ForkJoinPool (young brothers wait)
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private ParallelSearch parallelSearch; // guarded by searchLock
+    private boolean closed; // guarded by searchLock
+
+    // held by EngineService while it searches with this player (a lock, not synchronized, so a
+    // virtual thread waiting for it, such as a protocol session closing the player, does not pin
+    // its carrier); also guards the pool
+    final ReentrantLock searchLock = new ReentrantLock();
+
     public AIPlayer(String name, Piece piece) {
         super(name, piece);
     }
@@ -36,7 +109,7 @@ public class AIPlayer extends Player {
 
     @Override
     public boolean makeMove(Board board, int row, int col) {
-        int[] bestMove = calculateBestMove(board, defaultDepth);
+        int[] bestMove = calculateBestMove(board);
         if (bestMove != null) {
             board.placePiece(bestMove[0], bestMove[1], this.getPiece());
             return true;
@@ -44,158 +117,1016 @@ public class AIPlayer extends Player {
         return false;
     }
 
-    private int alphaBeta(boolean maxmin, Board board, int depth, int alpha, int beta) {
+    int alphaBeta(boolean maxmin, Board board, int depth, int alpha, int beta, int ply) {
+        nodes++;
+        if (isTimeUp()) {
+            return 0;
+        }
         if (depth == 0 || board.isOver()) {
+            evaluations++;
             return heuristic(board);
         }
 
+        Piece opponentPiece = this.getPiece() == Piece.BLACK ? Piece.WHITE : Piece.BLACK;
+        Piece toMove = maxmin ? this.getPiece() : opponentPiece;
+
+        // reuse the result of an earlier search of this position
+        long key = board.getHash() ^ Zobrist.sideKey(toMove);
+        int hashMove = -1;
+        if (transpositionTable != null) {
+            long entry = transpositionTable.probe(key);
+            if (entry != 0) {
+                hashMove = TranspositionTable.move(entry);
+                if (TranspositionTable.depth(entry) >= depth) {
+                    int stored = TranspositionTable.value(entry);
+                    int flag = TranspositionTable.flag(entry);
+                    if (flag == TranspositionTable.EXACT) return stored;
+                    if (flag == TranspositionTable.LOWER) alpha = Math.max(alpha, stored);
+                    if (flag == TranspositionTable.UPPER) beta = Math.min(beta, stored);
+                    if (beta <= alpha) return stored;
+                }
+            }
+        }
+        int alphaOrig = alpha;
+        int betaOrig = beta;
+
+        int[] moves = moveBuffers[ply];
+        int count = board.generateMoves(toMove, moves);
+        if (count == 0) {
+            // no move but the game goes on: pass
+            return alphaBeta(!maxmin, board, depth - 1, alpha, beta, ply + 1);
+        }
+        orderMoves(moves, count, hashMove, toMove, ply);
+
+        int temp;
+        int bestMove = -1;
         if (maxmin) {
-            int temp = Integer.MIN_VALUE;
-            for (int r = 0; r < board.getRows(); r++) {
-                for (int c = 0; c < board.getColumns(); c++) {
-                    if (board.canPlacePiece(r, c, this.getPiece())) {
-                        Board newBoard = board.cloneBoard();
-                        newBoard.placePiece(r, c, this.getPiece());
-                        int value = alphaBeta(false, newBoard, depth - 1, alpha, beta);
-                        temp = Math.max(temp, value);
-                        alpha = Math.max(alpha, value);
-                        if (beta <= alpha) {
-                            break;
-                        }
+            temp = Integer.MIN_VALUE;
+            for (int i = 0; i < count; i++) {
+                board.makeMove(moves[i], toMove);
+                int value = alphaBeta(false, board, depth - 1, alpha, beta, ply + 1);
+                board.unmakeMove();
+                if (aborted) {
+                    return 0;
+                }
+                if (value > temp) {
+                    temp = value;
+                    bestMove = moves[i];
+                }
+                alpha = Math.max(alpha, value);
+                if (beta <= alpha) {
+                    cutoffs++;
+                    if (i == 0) firstMoveCutoffs++;
+                    if (moveOrdering != null) {
+                        moveOrdering.recordCutoff(moves[i], toMove, depth, ply);
                     }
+                    break;
                 }
             }
-            return temp;
         } else {
-            int temp = Integer.MAX_VALUE;
-            Piece opponentPiece = this.getPiece() == Piece.BLACK ? Piece.WHITE : Piece.BLACK;
-            for (int r = 0; r < board.getRows(); r++) {
-                for (int c = 0; c < board.getColumns(); c++) {
-                    if (board.canPlacePiece(r, c, opponentPiece)) {
-                        Board newBoard = board.cloneBoard();
-                        newBoard.placePiece(r, c, opponentPiece);
-                        int value = alphaBeta(true, newBoard, depth - 1, alpha, beta);
-                        temp = Math.min(temp, value);
-                        beta = Math.min(beta, value);
-                        if (beta <= alpha) {
-                            break;
+            temp = Integer.MAX_VALUE;
+            for (int i = 0; i < count; i++) {
+                board.makeMove(moves[i], toMove);
+                int value = alphaBeta(true, board, depth - 1, alpha, beta, ply + 1);
+                board.unmakeMove();
+                if (aborted) {
+                    return 0;
+                }
+                if (value < temp) {
+                    temp = value;
+                    bestMove = moves[i];
+                }
+                beta = Math.min(beta, value);
+                if (beta <= alpha) {
+                    cutoffs++;
+                    if (i == 0) firstMoveCutoffs++;
+                    if (moveOrdering != null) {
+                        moveOrdering.recordCutoff(moves[i], toMove, depth, ply);
+                    }
+                    break;
+                }
+            }
+        }
+
+        if (transpositionTable != null) {
+            int flag = temp <= alphaOrig ? TranspositionTable.UPPER
+                    : temp >= betaOrig ? TranspositionTable.LOWER
+                    : TranspositionTable.EXACT;
+            transpositionTable.store(key, temp, depth, flag, bestMove);
+        }
+        return temp;
+    }
+    // Negamax principal variation search: the value is for toMove. The first move gets the full
+    // (alpha, beta) window; the others are scouted with a null window and searched again only if
+    // they land inside it. Transposition table values are stored for the side to move.
+    private int pvs(Board board, int depth, int alpha, int beta, int ply, Piece toMove) {
+        nodes++;
+        if (isTimeUp()) {
+            return 0;
+        }
+        if (depth == 0 || board.isOver()) {
+            evaluations++;
+            int value = heuristic(board);
+            return toMove == getPiece() ? value : -value;
+        }
+
+        long key = board.getHash() ^ Zobrist.sideKey(toMove);
+        int hashMove = -1;
+        if (transpositionTable != null) {
+            long entry = transpositionTable.probe(key);
+            if (entry != 0) {
+                hashMove = TranspositionTable.move(entry);
+                if (TranspositionTable.depth(entry) >= depth) {
+                    int stored = TranspositionTable.value(entry);
+                    int flag = TranspositionTable.flag(entry);
+                    if (flag == TranspositionTable.EXACT) return stored;
+                    if (flag == TranspositionTable.LOWER) alpha = Math.max(alpha, stored);
+                    if (flag == TranspositionTable.UPPER) beta = Math.min(beta, stored);
+                    if (beta <= alpha) return stored;
+                }
+            }
+        }
+        int alphaOrig = alpha;
+
+        int[] moves = moveBuffers[ply];
+        int count = board.generateMoves(toMove, moves);
+        if (count == 0) {
+            // no move but the game goes on: pass
+            return -pvs(board, depth - 1, -beta, -alpha, ply + 1, toMove.flip());
+        }
+        orderMoves(moves, count, hashMove, toMove, ply);
+
+        int best = -INFINITY;
+        int bestMove = -1;
+        for (int i = 0; i < count; i++) {
+            board.makeMove(moves[i], toMove);
+            int value;
+            if (i == 0) {
+                value = -pvs(board, depth - 1, -beta, -alpha, ply + 1, toMove.flip());
+            } else {
+                value = -pvs(board, depth - 1, -alpha - 1, -alpha, ply + 1, toMove.flip());
+                if (value > alpha && value < beta && !aborted) {
+                    researches++;
+                    value = -pvs(board, depth - 1, -beta, -alpha, ply + 1, toMove.flip());
+                }
+            }
+            board.unmakeMove();
+            if (aborted) {
+                return 0;
+            }
+            if (value > best) {
+                best = value;
+                bestMove = moves[i];
+                if (value > alpha) {
+                    alpha = value;
+                    if (alpha >= beta) {
+                        cutoffs++;
+                        if (i == 0) firstMoveCutoffs++;
+                        if (moveOrdering != null) {
+                            moveOrdering.recordCutoff(moves[i], toMove, depth, ply);
                         }
+                        break;
                     }
                 }
             }
-            return temp;
+        }
+
+        if (transpositionTable != null) {
+            int flag = best <= alphaOrig ? TranspositionTable.UPPER
+                    : best >= beta ? TranspositionTable.LOWER
+                    : TranspositionTable.EXACT;
+            transpositionTable.store(key, best, depth, flag, bestMove);
+        }
+        return best;
+    }
+
+    // PVS root at one depth inside an aspiration window around the previous value; a fail low or
+    // fail high widens that side (doubling the step) and searches again, up to the full window.
+    private int searchRootAspiration(Board board, int depth, int firstMove, int previousValue) {
+        int delta = aspirationWindow;
+        int alpha = -INFINITY;
+        int beta = INFINITY;
+        if (delta > 0 && depth > 1) {
+            alpha = Math.max(-INFINITY, previousValue - delta);
+            beta = Math.min(INFINITY, previousValue + delta);
+        }
+        while (true) {
+            int move = searchRootPvs(board, depth, firstMove, alpha, beta);
+            if (aborted) {
+                return -1;
+            }
+            if (bestValue <= alpha && alpha > -INFINITY) {
+                alpha = Math.max(-INFINITY, bestValue - delta);
+            } else if (bestValue >= beta && beta < INFINITY) {
+                beta = Math.min(INFINITY, bestValue + delta);
+            } else {
+                return move;
+            }
+            researches++;
+            delta *= 2;
+            firstMove = move;
         }
     }
-    private int minimax(boolean maxmin, Board board, int depth) {
+
+    private int searchRootPvs(Board board, int depth, int firstMove, int alpha, int beta) {
+        Piece me = getPiece();
+        int best = -INFINITY;
+        int bestMove = -1;
+        int[] moves = moveBuffers[0];
+        int count = board.generateMoves(me, moves);
+        orderMoves(moves, count, firstMove, me, 0);
+        for (int i = 0; i < count; i++) {
+            board.makeMove(moves[i], me);
+            int value;
+            if (i == 0) {
+                value = -pvs(board, depth - 1, -beta, -alpha, 1, me.flip());
+            } else {
+                value = -pvs(board, depth - 1, -alpha - 1, -alpha, 1, me.flip());
+                if (value > alpha && value < beta && !aborted) {
+                    researches++;
+                    value = -pvs(board, depth - 1, -beta, -alpha, 1, me.flip());
+                }
+            }
+            board.unmakeMove();
+            if (aborted) {
+                return -1;
+            }
+            if (value > best || bestMove == -1) {
+                best = value;
+                bestMove = moves[i];
+                if (value > alpha) {
+                    alpha = value;
+                    report(depth, bestMove, best);
+                    if (alpha >= beta) break;
+                }
+            }
+        }
+        this.bestValue = best;
+        return bestMove;
+    }
+
+    private int minimax(boolean maxmin, Board board, int depth, int ply) {
+        nodes++;
+        if (isTimeUp()) {
+            return 0;
+        }
         if (depth == 0 || board.isOver()) {
+            evaluations++;
             return heuristic(board);
         }
 
+        int[] moves = moveBuffers[ply];
         if (maxmin) {
             int temp = Integer.MIN_VALUE;
-            for (int r = 0; r < board.getRows(); r++) {
-                for (int c = 0; c < board.getColumns(); c++) {
-                    if (board.canPlacePiece(r, c, this.getPiece())) {
-                        Board newBoard = board.cloneBoard();
-                        newBoard.placePiece(r, c, this.getPiece());
-                        int value = minimax(false, newBoard, depth - 1);
-                        temp = Math.max(temp, value);
-
-                    }
+            int count = board.generateMoves(this.getPiece(), moves);
+            if (count == 0) {
+                return minimax(false, board, depth - 1, ply + 1); // pass
+            }
+            for (int i = 0; i < count; i++) {
+                board.makeMove(moves[i], this.getPiece());
+                int value = minimax(false, board, depth - 1, ply + 1);
+                board.unmakeMove();
+                if (aborted) {
+                    return 0;
                 }
+                temp = Math.max(temp, value);
             }
             return temp;
         } else {
             int temp = Integer.MAX_VALUE;
             Piece opponentPiece = this.getPiece() == Piece.BLACK ? Piece.WHITE : Piece.BLACK;
-            for (int r = 0; r < board.getRows(); r++) {
-                for (int c = 0; c < board.getColumns(); c++) {
-                    if (board.canPlacePiece(r, c, opponentPiece)) {
-                        Board newBoard = board.cloneBoard();
-                        newBoard.placePiece(r, c, opponentPiece);
-                        int value = minimax(true, newBoard, depth - 1);
-                        temp = Math.min(temp, value);
-
-                    }
+            int count = board.generateMoves(opponentPiece, moves);
+            if (count == 0) {
+                return minimax(true, board, depth - 1, ply + 1); // pass
+            }
+            for (int i = 0; i < count; i++) {
+                board.makeMove(moves[i], opponentPiece);
+                int value = minimax(true, board, depth - 1, ply + 1);
+                board.unmakeMove();
+                if (aborted) {
+                    return 0;
                 }
+                temp = Math.min(temp, value);
             }
             return temp;
         }
     }
 
+    // fixed depth, or the think-time budget when one is set
+    public int[] calculateBestMove(Board board) {
+        return calculate(board, defaultDepth, thinkTimeMs, false).move();
+    }
+
     public int[] calculateBestMove(Board board, int depth) {
+        return calculate(board, depth, 0, false).move();
+    }
 
-        System.gc(); // don rac bo nho
-      double startMemory = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
-        double startTime = System.nanoTime();
+    // same search as calculateBestMove(board), returning the move together with its statistics
+    public SearchStats calculateBestMoveWithStats(Board board) {
+        return calculate(board, defaultDepth, thinkTimeMs, false);
+    }
 
+    public SearchStats calculateBestMoveWithStats(Board board, int depth) {
+        return calculate(board, depth, 0, false);
+    }
 
-        int bestValue = Integer.MIN_VALUE;
-        int bestRow = -1;
-        int bestCol = -1;
-
-        for (int r = 0; r < board.getRows(); r++) {
-            for (int c = 0; c < board.getColumns(); c++) {
-                if (board.canPlacePiece(r, c, this.getPiece())) {
-                    Board newBoard = board.cloneBoard();
-                    newBoard.placePiece(r, c, this.getPiece());
-
-                    int value;
-                    // choose algorithm based on setting
-                    if (this.algorithm == Algorithm.ALPHABETA) {
-                        value = alphaBeta(false, newBoard, depth - 1, Integer.MIN_VALUE, Integer.MAX_VALUE);
-                    } else {
-                        value = minimax(false, newBoard, depth - 1);
-                    }
+    // Same as calculateBestMoveWithStats(board), for searches that may be stopped (EngineService):
+    // a fixed-depth search also deepens one depth at a time, whatever the algorithm, so stop()
+    // leaves the best move of the last finished depth instead of none.
+    SearchStats calculateStoppable(Board board) {
+        return calculate(board, defaultDepth, thinkTimeMs, true);
+    }
 
-                    if (value > bestValue) {
-                        bestValue = value;
-                        bestRow = r;
-                        bestCol = c;
-                    }
-                }
+    private SearchStats calculate(Board board, int depth, long timeMillis, boolean deepen) {
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        long startTime = System.nanoTime();
+
+        OpeningBook.Move bookMove = openingBook != null ? openingBook.probe(board, getPiece()) : null;
+        if (bookMove != null) {
+            SearchStats stats = bookMove(board, bookMove, System.nanoTime() - startTime);
+            commitEvent(event, "BOOK", stats, timeMillis);
+            return stats;
+        }
+
+        Board searchBoard = searchCopy(board);
+
+        // few empty squares left: solve to the end of the game instead
+        long searchMillis = timeMillis;
+        if (searchBoard instanceof BitBoard bitBoard && bitBoard.countPieces(null) <= endgameEmpties) {
+            // a timed solve gets half the budget; the rest is left for the normal search if it is stopped
+            long solveDeadline = timeMillis > 0 ? startTime + timeMillis * 500_000 : Long.MAX_VALUE;
+            SearchStats stats = solveEndgame(bitBoard, solveDeadline, startTime);
+            if (stats != null) {
+                commitEvent(event, endgameWld ? "ENDGAME_WLD" : "ENDGAME", stats, timeMillis);
+                return stats;
+            }
+            if (timeMillis > 0) {
+                searchMillis = Math.max(1, timeMillis - (System.nanoTime() - startTime) / 1_000_000);
             }
         }
-        long endTime = System.nanoTime();
-        long endMemory = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
 
-        double duration = (endTime - startTime) / 1_000_000;
-        double memoryUsed = (endMemory - startMemory) / 1024;
+        int bestMove = searchMillis > 0 ? searchBestMoveTimed(searchBoard, searchMillis)
+                : deepen ? deepen(searchBoard, depth, Long.MAX_VALUE)
+                : searchBestMove(searchBoard, depth);
+        long elapsed = System.nanoTime() - startTime;
 
-        System.out.println("--------------------------------------------------");
-        System.out.println("Algorithm: " + this.algorithm + " | Depth: " + depth);
-        System.out.println("Time: " + duration + " ms");
-        System.out.println("Memory Diff: " + memoryUsed + " KB ");
-        System.out.println("--------------------------------------------------");
+        int columns = board.getColumns();
+        int[] move = bestMove != -1 ? new int[]{bestMove / columns, bestMove % columns} : null;
+        List<SearchStats.Iteration> iterationList = new ArrayList<>(iterations);
+        for (int i = 0; i < iterations; i++) {
+            iterationList.add(new SearchStats.Iteration(iterationDepths[i], iterationNodes[i], iterationNanos[i]));
+        }
+        SearchStats stats = new SearchStats(move, bestValue, completedDepth, nodes, evaluations, cutoffs,
+                principalVariation(searchBoard, bestMove), elapsed, iterationList);
+        commitEvent(event, algorithm.name(), stats, timeMillis);
+        return stats;
+    }
 
-        if (bestRow != -1 && bestCol != -1) {
-            return new int[]{bestRow, bestCol};
+    // search a private copy; 8x8 games are searched on the bitboard, other sizes up to 16x16
+    // on the multi-word bitboard
+    private static Board searchCopy(Board board) {
+        if (board.getRows() == BitBoard.SIZE && board.getColumns() == BitBoard.SIZE) {
+            return BitBoard.of(board);
+        } else if (board.getRows() <= LargeBitBoard.MAX_SIZE && board.getColumns() <= LargeBitBoard.MAX_SIZE) {
+            return LargeBitBoard.of(board);
         }
-        return null;
+        return board.cloneBoard();
     }
 
-    private int heuristic(Board board) {
-        Piece myPiece = this.getPiece();
-        Piece oppPiece = myPiece.flip();
+    // Multi-PV analysis: iterative deepening in which every legal move of toMove (not only the
+    // best) gets an exact value, so the moves can be compared with each other. Each move is
+    // searched by PVS inside an aspiration window around its value at the previous depth.
+    // listener gets every finished depth on this thread. Runs to maxDepth (at most the number
+    // of empty squares) or until stop(); returns the last finished depth, or null when toMove
+    // has no move or the first depth did not finish. The book and the endgame solver are not used.
+    // pvs stores values for the side to move, alphaBeta for this player, so with any other
+    // algorithm the transposition table is cleared before and after the analysis.
+    public Analysis analyze(Board board, Piece toMove, int maxDepth, Consumer<Analysis> listener) {
+        long startTime = System.nanoTime();
+        Board searchBoard = searchCopy(board);
+        maxDepth = Math.max(1, Math.min(maxDepth, searchBoard.countPieces(null)));
+        prepareSearch(searchBoard, maxDepth);
+        boolean sharedTable = algorithm != Algorithm.PVS && transpositionTable != null;
+        if (sharedTable) transpositionTable.clear();
+        int unitsPerDisc = patternEvaluator != null && searchBoard instanceof BitBoard ? PatternEvaluator.SCALE : 0;
 
-        int myScore = 0;
-        int oppScore = 0;
-        int myMobility = 0;
-        int oppMobility = 0;
+        int[] buffer = new int[searchBoard.getRows() * searchBoard.getColumns()];
+        int count = searchBoard.generateMoves(toMove, buffer);
+        if (count == 0) return null;
+        int[] moves = Arrays.copyOf(buffer, count);
+        int[] values = new int[count];
+        Analysis result = null;
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            long start = System.nanoTime();
+            long startNodes = nodes;
+            for (int i = 0; i < count; i++) {
+                searchBoard.makeMove(moves[i], toMove);
+                values[i] = analyzeMove(searchBoard, depth, toMove, values[i]);
+                searchBoard.unmakeMove();
+                if (aborted) break;
+            }
+            if (aborted) break;
 
-        for (int r = 0; r < board.getRows(); r++) {
-            for (int c = 0; c < board.getColumns(); c++) {
-                Piece p = board.getPiece(r, c);
-                if (p == myPiece) {
-                    myScore += WEIGHTS[r][c];
-                } else if (p == oppPiece) {
-                    oppScore += WEIGHTS[r][c];
+            // best first; the next depth searches the moves in this order
+            for (int i = 1; i < count; i++) {
+                int move = moves[i];
+                int value = values[i];
+                int j = i - 1;
+                while (j >= 0 && values[j] < value) {
+                    moves[j + 1] = moves[j];
+                    values[j + 1] = values[j];
+                    j--;
                 }
-                if (board.canPlacePiece(r, c, myPiece)) myMobility++;
-                if (board.canPlacePiece(r, c, oppPiece)) oppMobility++;
+                moves[j + 1] = move;
+                values[j + 1] = value;
             }
+            completedDepth = depth;
+            bestValue = values[0];
+            recordIteration(depth, startNodes, start);
+            result = new Analysis(toMove, depth, moves.clone(), values.clone(), unitsPerDisc, nodes,
+                    System.nanoTime() - startTime);
+            if (listener != null) listener.accept(result);
         }
+        if (sharedTable) transpositionTable.clear();
+        return result;
+    }
 
-        return (myScore - oppScore) + 10 * (myMobility - oppMobility);
+    // exact value for toMove of the move just made on board, searched around 'guess'
+    private int analyzeMove(Board board, int depth, Piece toMove, int guess) {
+        int delta = aspirationWindow;
+        int alpha = -INFINITY;
+        int beta = INFINITY;
+        if (delta > 0 && depth > 1) {
+            alpha = Math.max(-INFINITY, guess - delta);
+            beta = Math.min(INFINITY, guess + delta);
+        }
+        while (true) {
+            int value = -pvs(board, depth - 1, -beta, -alpha, 1, toMove.flip());
+            if (aborted) {
+                return 0;
+            }
+            if (value <= alpha && alpha > -INFINITY) {
+                alpha = Math.max(-INFINITY, value - delta);
+            } else if (value >= beta && beta < INFINITY) {
+                beta = Math.min(INFINITY, value + delta);
+            } else {
+                return value;
+            }
+            researches++;
+            delta *= 2;
+        }
+    }
+
+    private void commitEvent(SearchEvent event, String algorithmName, SearchStats stats, long timeMillis) {
+        event.end();
+        if (!event.shouldCommit()) {
+            return;
+        }
+        int[] line = stats.principalVariation();
+        event.algorithm = algorithmName;
+        event.player = getPiece().name();
+        event.depth = stats.depth();
+        event.timeBudget = timeMillis;
+        event.nodes = stats.nodes();
+        event.evaluations = stats.evaluations();
+        event.cutoffs = stats.cutoffs();
+        event.nodesPerSecond = stats.nodesPerSecond();
+        event.bestMove = line.length > 0 ? line[0] : -1;
+        event.bestValue = stats.bestValue();
+        event.commit();
+        for (SearchStats.Iteration iteration : stats.iterations()) {
+            SearchIterationEvent iterationEvent = new SearchIterationEvent();
+            iterationEvent.depth = iteration.depth();
+            iterationEvent.nodes = iteration.nodes();
+            iterationEvent.time = iteration.nanos();
+            iterationEvent.commit();
+        }
+    }
+
+    private SearchStats bookMove(Board board, OpeningBook.Move bookMove, long elapsed) {
+        int columns = board.getColumns();
+        nodes = 0;
+        evaluations = 0;
+        cutoffs = 0;
+        firstMoveCutoffs = 0;
+        iterations = 0;
+        bestValue = bookMove.value();
+        completedDepth = bookMove.depth();
+        return new SearchStats(new int[]{bookMove.move() / columns, bookMove.move() % columns}, bookMove.value(),
+                bookMove.depth(), 0, 0, 0, new int[]{bookMove.move()}, elapsed, List.of());
+    }
+
+    // Exact (or win/loss/draw) result by EndgameSolver; bestValue is then the final disc difference
+    // (or +1/0/-1). Returns null if the solve was stopped before it finished.
+    private SearchStats solveEndgame(BitBoard board, long solveDeadline, long startTime) {
+        if (endgameSolver == null) {
+            endgameSolver = new EndgameSolver(() -> stopOwner.stopRequested || System.nanoTime() >= endgameDeadline);
+        }
+        endgameDeadline = solveDeadline;
+        int empties = board.countPieces(null);
+        int value = endgameWld ? endgameSolver.solveWld(board, getPiece()) : endgameSolver.solve(board, getPiece());
+        if (endgameSolver.isAborted()) {
+            return null;
+        }
+        int move = endgameSolver.getBestMove();
+        nodes = endgameSolver.getNodes();
+        evaluations = 0;
+        cutoffs = 0;
+        firstMoveCutoffs = 0;
+        iterations = 0;
+        bestValue = value;
+        completedDepth = empties;
+        long elapsed = System.nanoTime() - startTime;
+        int[] squares = move != -1 ? new int[]{move} : new int[0];
+        int[] result = move != -1 ? new int[]{move / BitBoard.SIZE, move % BitBoard.SIZE} : null;
+        return new SearchStats(result, value, empties, nodes, 0, 0, squares, elapsed,
+                List.of(new SearchStats.Iteration(empties, nodes, elapsed)));
+    }
+
+    // the best move followed by the replies stored in the transposition table, as squares
+    // (row * columns + col); passes are skipped. The board is left unchanged.
+    private int[] principalVariation(Board board, int bestMove) {
+        if (bestMove == -1) return new int[0];
+        int[] line = new int[Math.max(completedDepth, 1)];
+        int length = 0;
+        Piece toMove = getPiece();
+        int move = bestMove;
+        while (move != -1 && length < line.length && board.makeMove(move, toMove)) {
+            line[length++] = move;
+            toMove = toMove.flip();
+            if (board.countMoves(toMove) == 0) {
+                toMove = toMove.flip();
+            }
+            move = -1;
+            if (transpositionTable != null) {
+                long entry = transpositionTable.probe(board.getHash() ^ Zobrist.sideKey(toMove));
+                if (entry != 0) move = TranspositionTable.move(entry);
+            }
+        }
+        for (int i = 0; i < length; i++) {
+            board.unmakeMove();
+        }
+        return Arrays.copyOf(line, length);
+    }
+
+    // Searches in place with makeMove/unmakeMove and returns the best square (row * columns + col),
+    // or -1 when there is no legal move. The board is left unchanged. Once the buffers for a
+    // board size and depth exist, the search itself allocates nothing.
+    public int searchBestMove(Board board, int depth) {
+        prepareSearch(board, depth);
+        if (algorithm == Algorithm.PVS) {
+            // the shallower iterations seed the table, the move order and the aspiration windows
+            int bestMove = -1;
+            for (int d = 1; d <= depth; d++) {
+                long start = System.nanoTime();
+                long startNodes = nodes;
+                int move = searchRootAspiration(board, d, bestMove, bestValue);
+                if (aborted) {
+                    break;
+                }
+                bestMove = move;
+                completedDepth = d;
+                recordIteration(d, startNodes, start);
+            }
+            return bestMove;
+        }
+        long start = System.nanoTime();
+        int bestMove = searchRoot(board, depth, -1);
+        if (!aborted) {
+            completedDepth = depth;
+            recordIteration(depth, 0, start);
+        }
+        return bestMove;
+    }
+
+    // Iterative deepening: searches depth 1, 2, 3... until timeMillis has passed, then returns
+    // the best move of the last depth that finished. Depth 1 always finishes.
+    public int searchBestMoveTimed(Board board, long timeMillis) {
+        long deadlineNanos = System.nanoTime() + timeMillis * 1_000_000;
+        return deepen(board, board.countPieces(null), deadlineNanos);
+    }
+
+    // Iterative deepening with any algorithm: depth 1, 2, 3... up to maxDepth, until deadlineNanos
+    // (Long.MAX_VALUE for none) or stop(); returns the best move of the last depth that finished.
+    private int deepen(Board board, int maxDepth, long deadlineNanos) {
+        prepareSearch(board, maxDepth);
+
+        int bestMove = -1;
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            long start = System.nanoTime();
+            long startNodes = nodes;
+            int move = algorithm == Algorithm.PVS
+                    ? searchRootAspiration(board, depth, bestMove, bestValue)
+                    : searchRoot(board, depth, bestMove);
+            if (aborted) {
+                break;
+            }
+            bestMove = move;
+            completedDepth = depth;
+            recordIteration(depth, startNodes, start);
+            report(depth, bestMove, bestValue);
+            if (move == -1 || System.nanoTime() >= deadlineNanos) {
+                break;
+            }
+            // only deeper iterations may be cut off
+            deadline = deadlineNanos;
+        }
+        deadline = Long.MAX_VALUE;
+        return bestMove;
+    }
+
+    private void prepareSearch(Board board, int maxDepth) {
+        ensureMoveBuffers(board.getRows() * board.getColumns(), maxDepth);
+        if (iterationDepths.length < maxDepth) {
+            iterationDepths = new int[maxDepth];
+            iterationNodes = new long[maxDepth];
+            iterationNanos = new long[maxDepth];
+        }
+        iterations = 0;
+        nodes = 0;
+        evaluations = 0;
+        cutoffs = 0;
+        firstMoveCutoffs = 0;
+        researches = 0;
+        completedDepth = 0;
+        aborted = false;
+        deadline = Long.MAX_VALUE;
+        if (algorithm != Algorithm.MINIMAX && transpositionTableMb > 0) {
+            if (transpositionTable == null) {
+                transpositionTable = new TranspositionTable(transpositionTableMb);
+            }
+            transpositionTable.newSearch();
+        }
+        attachSquareWeights(board);
+        attachPatterns(board);
+        prepareMoveOrdering(board, maxDepth);
+    }
+
+    private void prepareMoveOrdering(Board board, int maxDepth) {
+        if (algorithm != Algorithm.MINIMAX && moveOrderingEnabled) {
+            if (moveOrdering == null) {
+                moveOrdering = new MoveOrdering();
+            }
+            moveOrdering.newSearch(maxDepth, squareWeightsFor(board));
+        } else {
+            moveOrdering = null;
+        }
+    }
+
+    // one full-depth pass over the root moves, trying firstMove (if legal) first
+    private int searchRoot(Board board, int depth, int firstMove) {
+        ParallelSearch parallel = algorithm == Algorithm.PARALLEL && depth >= ParallelSearch.MIN_SPLIT_DEPTH
+                ? parallelSearch() : null;
+        if (parallel != null) {
+            int move = parallel.searchRoot(board, depth, firstMove, deadline);
+            nodes += parallel.getNodes();
+            evaluations += parallel.getEvaluations();
+            cutoffs += parallel.getCutoffs();
+            firstMoveCutoffs += parallel.getFirstMoveCutoffs();
+            aborted = parallel.isAborted();
+            if (aborted) {
+                return -1;
+            }
+            bestValue = parallel.getBestValue();
+            report(depth, move, bestValue);
+            return move;
+        }
+
+        int bestValue = Integer.MIN_VALUE;
+        int bestMove = -1;
+
+        int[] moves = moveBuffers[0];
+        int count = board.generateMoves(this.getPiece(), moves);
+        orderMoves(moves, count, firstMove, this.getPiece(), 0);
+        for (int i = 0; i < count; i++) {
+            board.makeMove(moves[i], this.getPiece());
+
+            int value;
+            // choose algorithm based on setting
+            if (this.algorithm != Algorithm.MINIMAX) {
+                // later moves only need to prove they beat the best so far
+                value = alphaBeta(false, board, depth - 1, bestValue, Integer.MAX_VALUE, 1);
+            } else {
+                value = minimax(false, board, depth - 1, 1);
+            }
+            board.unmakeMove();
+            if (aborted) {
+                return -1;
+            }
+
+            // a legal move is always returned, even if every line scores Integer.MIN_VALUE
+            if (value > bestValue || bestMove == -1) {
+                bestValue = value;
+                bestMove = moves[i];
+                report(depth, bestMove, bestValue);
+            }
+        }
+        this.bestValue = bestValue;
+        return bestMove;
+    }
+
+    // hash/PV move first, then the move ordering heuristics when enabled
+    void orderMoves(int[] moves, int count, int hashMove, Piece toMove, int ply) {
+        if (moveOrdering != null) {
+            moveOrdering.order(moves, count, hashMove, toMove, ply);
+            return;
+        }
+        for (int i = 1; i < count; i++) {
+            if (moves[i] == hashMove) {
+                moves[i] = moves[0];
+                moves[0] = hashMove;
+                break;
+            }
+        }
+    }
+
+    // Resets this player as a worker of a parallel search run by owner: same table, own buffers
+    void prepareHelper(AIPlayer owner, Board board, int maxDepth, long deadline) {
+        this.transpositionTable = owner.transpositionTable;
+        this.moveOrderingEnabled = owner.moveOrderingEnabled;
+        this.algorithm = Algorithm.ALPHABETA;
+        // same weights array as the owner, so boards cloned from the root keep their running score
+        this.squareWeights = owner.squareWeights;
+        this.squareWeightRows = owner.squareWeightRows;
+        this.squareWeightColumns = owner.squareWeightColumns;
+        this.patternEvaluator = owner.patternEvaluator;
+        ensureMoveBuffers(board.getRows() * board.getColumns(), maxDepth);
+        nodes = 0;
+        evaluations = 0;
+        cutoffs = 0;
+        firstMoveCutoffs = 0;
+        aborted = false;
+        this.deadline = deadline;
+        this.stopOwner = owner;
+        prepareMoveOrdering(board, maxDepth);
+    }
+
+    void countNode() {
+        nodes++;
+    }
+
+    void countCutoff(int index) {
+        cutoffs++;
+        if (index == 0) firstMoveCutoffs++;
+    }
+
+    boolean isAborted() {
+        return aborted;
+    }
+
+    private void recordIteration(int depth, long startNodes, long startNanos) {
+        iterationDepths[iterations] = depth;
+        iterationNodes[iterations] = nodes - startNodes;
+        iterationNanos[iterations] = System.nanoTime() - startNanos;
+        iterations++;
+    }
+
+    private void report(int depth, int move, int value) {
+        if (searchListener != null) {
+            searchListener.accept(new SearchProgress(depth, completedDepth, move, value, nodes));
+        }
+    }
+
+    // Asks a running search (on another thread) to stop as soon as possible; it then returns
+    // the best move of the last completed depth, or -1. Stays set until clearStop().
+    public void stop() {
+        stopRequested = true;
+    }
+
+    public void clearStop() {
+        stopRequested = false;
+    }
+
+    // called on the search thread with progress (new best root move, finished iteration); null to remove
+    public void setSearchListener(Consumer<SearchProgress> searchListener) {
+        this.searchListener = searchListener;
+    }
+
+    private boolean isTimeUp() {
+        if (!aborted && (nodes & 1023) == 0 && (System.nanoTime() >= deadline || stopOwner.stopRequested)) {
+            aborted = true;
+        }
+        return aborted;
+    }
+
+    // fixed depth of calculateBestMove(board) when no think time is set
+    public void setDepth(int depth) {
+        this.defaultDepth = depth;
+    }
+
+    public int getDepth() {
+        return defaultDepth;
+    }
+
+    // think-time per move in ms; 0 searches to the fixed depth instead
+    public void setThinkTime(long thinkTimeMs) {
+        this.thinkTimeMs = thinkTimeMs;
+    }
+
+    public long getThinkTime() {
+        return thinkTimeMs;
+    }
+
+    // sort alpha-beta moves by hash move, killers, history and square weight (default on)
+    public void setMoveOrdering(boolean enabled) {
+        this.moveOrderingEnabled = enabled;
+    }
+
+    // consulted by calculateBestMove before searching; null to always search
+    public void setOpeningBook(OpeningBook openingBook) {
+        this.openingBook = openingBook;
+    }
+
+    public OpeningBook getOpeningBook() {
+        return openingBook;
+    }
+
+    // scores 8x8 leaves with pattern tables (e.g. PatternEvaluator.standard()); null for WEIGHTS
+    public void setPatternEvaluator(PatternEvaluator patternEvaluator) {
+        this.patternEvaluator = patternEvaluator;
+    }
+
+    public PatternEvaluator getPatternEvaluator() {
+        return patternEvaluator;
+    }
+
+    // calculateBestMove solves 8x8 positions with at most 'empties' empty squares to the end
+    // (0, the default, disables it; at most EndgameSolver.MAX_EMPTIES), whatever the depth or
+    // algorithm; wld = only win/loss/draw, which is faster
+    public void setEndgameSolver(int empties, boolean wld) {
+        this.endgameEmpties = Math.min(empties, EndgameSolver.MAX_EMPTIES);
+        this.endgameWld = wld;
+    }
+
+    public int getEndgameEmpties() {
+        return endgameEmpties;
+    }
+
+    // worker threads for Algorithm.PARALLEL
+    public void setThreads(int threads) {
+        searchLock.lock();
+        try {
+            this.threads = Math.max(1, threads);
+            shutdownParallelSearch();
+        } finally {
+            searchLock.unlock();
+        }
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    // Ends the worker threads of Algorithm.PARALLEL; call when the player is no longer used.
+    // Waits for a search running through EngineService; later PARALLEL searches of a closed
+    // player run on the calling thread alone.
+    @Override
+    public void close() {
+        searchLock.lock();
+        try {
+            closed = true;
+            shutdownParallelSearch();
+        } finally {
+            searchLock.unlock();
+        }
+    }
+
+    // the PARALLEL worker pool, started on first use; null once the player is closed
+    private ParallelSearch parallelSearch() {
+        searchLock.lock();
+        try {
+            if (parallelSearch == null && !closed) {
+                parallelSearch = new ParallelSearch(this, threads);
+            }
+            return parallelSearch;
+        } finally {
+            searchLock.unlock();
+        }
+    }
+
+    private void shutdownParallelSearch() {
+        if (parallelSearch != null) {
+            parallelSearch.close();
+            parallelSearch = null;
+        }
+    }
+
+    // score of the chosen move in the last completed search, from this player's side
+    public int getBestValue() {
+        return bestValue;
+    }
+
+    // beta cutoffs in the last search
+    public long getCutoffs() {
+        return cutoffs;
+    }
+
+    // beta cutoffs caused by the first move tried; divide by getCutoffs() for the ordering quality
+    public long getFirstMoveCutoffs() {
+        return firstMoveCutoffs;
+    }
+
+    // PVS: null-window scouts and aspiration windows that had to be searched again
+    public long getResearches() {
+        return researches;
+    }
+
+    // PVS: half-width of the first aspiration window, in heuristic units; 0 searches every
+    // iteration with the full window
+    public void setAspirationWindow(int aspirationWindow) {
+        this.aspirationWindow = aspirationWindow;
+    }
+
+    public int getAspirationWindow() {
+        return aspirationWindow;
+    }
+
+    // deepest fully searched depth of the last search
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    // size of the alpha-beta transposition table in MB, 0 to disable; clears the current table
+    public void setTranspositionTableSize(int sizeMb) {
+        this.transpositionTableMb = sizeMb;
+        this.transpositionTable = null;
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return transpositionTable;
+    }
+
+    // nodes visited by the last search
+    public long getNodeCount() {
+        return nodes;
+    }
+
+    // leaves scored by heuristic in the last search
+    public long getEvaluationCount() {
+        return evaluations;
+    }
+
+    private void ensureMoveBuffers(int squares, int depth) {
+        if (moveBuffers.length < depth + 1 || moveBuffers[0].length < squares) {
+            moveBuffers = new int[depth + 1][squares];
+        }
+    }
+
+    // Positional weight plus 10 per move of mobility advantage, from this player's point of view.
+    // The weighted sum is kept up to date by the board itself as discs are placed and flipped,
+    // so a leaf only pays for the two mobility counts.
+    // With a pattern evaluator, 8x8 bitboards are scored by its tables instead.
+    public int heuristic(Board board) {
+        Piece myPiece = this.getPiece();
+        if (patternEvaluator != null && board instanceof BitBoard bitBoard) {
+            attachPatterns(bitBoard);
+            return patternEvaluator.evaluate(bitBoard, myPiece);
+        }
+        attachSquareWeights(board);
+        int mobility = board.countMoves(myPiece) - board.countMoves(myPiece.flip());
+        return board.getWeightedScore(myPiece) + 10 * mobility;
+    }
+
+    // Square weights (index row * columns + col) for any board size. A square is weighted by its
+    // distance to the nearest edge in each direction, read from one quadrant of WEIGHTS: corners,
+    // X- and C-squares and edges keep their 8x8 values, and every square three or more rows and
+    // columns in gets the centre weight. For 8x8 this is exactly WEIGHTS.
+    public static int[] positionalWeights(int rows, int columns) {
+        int[] weights = new int[rows * columns];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                int fromRowEdge = Math.min(3, Math.min(r, rows - 1 - r));
+                int fromColumnEdge = Math.min(3, Math.min(c, columns - 1 - c));
+                weights[r * columns + c] = WEIGHTS[fromRowEdge][fromColumnEdge];
+            }
+        }
+        return weights;
+    }
+
+    private void attachPatterns(Board board) {
+        if (patternEvaluator != null && board instanceof BitBoard bitBoard
+                && bitBoard.getPatternEvaluator() != patternEvaluator) {
+            bitBoard.setPatternEvaluator(patternEvaluator);
+        }
+    }
+
+    private void attachSquareWeights(Board board) {
+        int[] weights = squareWeightsFor(board);
+        if (board.getSquareWeights() != weights) {
+            board.setSquareWeights(weights);
+        }
+    }
+
+    // positionalWeights for the board's size, cached
+    private int[] squareWeightsFor(Board board) {
+        int rows = board.getRows();
+        int columns = board.getColumns();
+        if (squareWeights == null || squareWeightRows != rows || squareWeightColumns != columns) {
+            squareWeights = positionalWeights(rows, columns);
+            squareWeightRows = rows;
+            squareWeightColumns = columns;
+        }
+        return squareWeights;
     }
 }
@@ -0,0 +1,18 @@
+package othello;
+
+// One finished depth of AIPlayer.analyze: every legal move of toMove (row * columns + col) with
+// its value at that depth from toMove's point of view, best first. Do not modify the arrays.
+// unitsPerDisc is PatternEvaluator.SCALE when the values come from the pattern evaluator (1/SCALE
+// discs), 0 when they are square-weight heuristic scores, which have no disc equivalent.
+public record Analysis(Piece toMove, int depth, int[] moves, int[] values, int unitsPerDisc, long nodes,
+                       long elapsedNanos) {
+
+    public int bestMove() {
+        return moves.length > 0 ? moves[0] : -1;
+    }
+
+    // value of the i-th move in discs, or NaN when the values are not in disc units
+    public double discs(int i) {
+        return unitsPerDisc > 0 ? values[i] / (double) unitsPerDisc : Double.NaN;
+    }
+}
@@ -0,0 +1,197 @@
+package othello;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+// Scores many positions in parallel for offline jobs. Every worker thread has its own engines
+// (one AIPlayer per side, each with its own transposition table), so workers share nothing.
+// Positions are taken from an iterator and results handed back in input order on the calling
+// thread; at most 'window' positions are in flight, so memory stays bounded for any input size.
+// Positions are written one per line: the squares row by row ('X' black, 'O' white, '-' empty;
+// a square board of any size up to 16x16), a space and the side to move, e.g. for 8x8
+//   ---------------------------OX------XO--------------------------- X
+public class BatchEvaluator implements AutoCloseable {
+    public record Position(Board board, Piece toMove) {
+    }
+
+    // move = row * columns + col, or -1 (and value 0) when toMove has no move; value is from toMove's
+    // point of view. 8x8 positions with few empties are solved: depth is then the number of empty
+    // squares and value the final disc difference.
+    public record Result(long index, Position position, int move, int value, int depth, long nodes) {
+    }
+
+    public record Summary(long positions, long nodes, long elapsedNanos) {
+        public double positionsPerSecond() {
+            return elapsedNanos > 0 ? positions * 1e9 / elapsedNanos : 0;
+        }
+    }
+
+    private final int workers;
+    private final ExecutorService executor;
+    private final ThreadLocal<AIPlayer[]> engines = ThreadLocal.withInitial(this::createEngines);
+    private final List<AIPlayer> created = new CopyOnWriteArrayList<>(); // closed with the evaluator
+    private int depth = 6;
+    private long thinkTimeMs;
+    private AIPlayer.Algorithm algorithm = AIPlayer.Algorithm.PVS;
+    private PatternEvaluator patternEvaluator;
+    private int transpositionTableMb = 16;
+    private int window;
+    private boolean reproducible;
+
+    public BatchEvaluator(int workers) {
+        this.workers = workers;
+        this.window = workers * 4;
+        this.executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "batch-evaluator");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Evaluates every position of the iterator; results arrive in order. Set the options before the
+    // first call: each worker creates its engines with them when it first runs.
+    public Summary evaluate(Iterator<Position> positions, Consumer<Result> results) {
+        long start = System.nanoTime();
+        ArrayDeque<CompletableFuture<Result>> inFlight = new ArrayDeque<>(window);
+        long index = 0;
+        long nodes = 0;
+        while (positions.hasNext()) {
+            if (inFlight.size() >= window) {
+                Result result = inFlight.removeFirst().join();
+                nodes += result.nodes();
+                results.accept(result);
+            }
+            Position position = positions.next();
+            long current = index++;
+            inFlight.addLast(CompletableFuture.supplyAsync(() -> evaluate(current, position), executor));
+        }
+        while (!inFlight.isEmpty()) {
+            Result result = inFlight.removeFirst().join();
+            nodes += result.nodes();
+            results.accept(result);
+        }
+        return new Summary(index, nodes, System.nanoTime() - start);
+    }
+
+    // runs on a worker with that worker's engines
+    private Result evaluate(long index, Position position) {
+        AIPlayer engine = engines.get()[position.toMove() == Piece.BLACK ? 0 : 1];
+        if (reproducible && engine.getTranspositionTable() != null) {
+            engine.getTranspositionTable().clear();
+        }
+        SearchStats stats = engine.calculateBestMoveWithStats(position.board());
+        int[] move = stats.move();
+        int columns = position.board().getColumns();
+        return new Result(index, position, move != null ? move[0] * columns + move[1] : -1,
+                move != null ? stats.bestValue() : 0, stats.depth(), stats.nodes());
+    }
+
+    private AIPlayer[] createEngines() {
+        AIPlayer[] result = new AIPlayer[2];
+        for (Piece piece : Piece.values()) {
+            AIPlayer engine = new AIPlayer("Batch", piece, depth, algorithm);
+            engine.setThreads(1);
+            engine.setThinkTime(thinkTimeMs);
+            engine.setTranspositionTableSize(transpositionTableMb);
+            engine.setPatternEvaluator(patternEvaluator);
+            engine.setEndgameSolver(AIPlayer.DEFAULT_ENDGAME_EMPTIES, false);
+            result[piece == Piece.BLACK ? 0 : 1] = engine;
+            created.add(engine);
+        }
+        return result;
+    }
+
+    // parses one position line; IllegalArgumentException if it is not one
+    public static Position parse(String line) {
+        String text = line.strip();
+        int space = text.indexOf(' ');
+        if (space < 0) throw new IllegalArgumentException("no side to move in '" + line + "'");
+        int squares = space;
+        int size = (int) Math.round(Math.sqrt(squares));
+        if (size * size != squares || size < 2 || size > LargeBitBoard.MAX_SIZE) {
+            throw new IllegalArgumentException(squares + " squares is not a square board");
+        }
+        Board board = size == BitBoard.SIZE ? new BitBoard() : new LargeBitBoard(size, size);
+        for (int i = 0; i < squares; i++) {
+            Piece piece = switch (text.charAt(i)) {
+                case 'X', 'x', '*' -> Piece.BLACK;
+                case 'O', 'o' -> Piece.WHITE;
+                case '-', '.' -> null;
+                default -> throw new IllegalArgumentException("unexpected '" + text.charAt(i) + "' on the board");
+            };
+            if (piece != null) board.setPiece(i / size, i % size, piece);
+        }
+        Piece toMove = switch (text.substring(space + 1).strip()) {
+            case "X", "x", "*" -> Piece.BLACK;
+            case "O", "o" -> Piece.WHITE;
+            default -> throw new IllegalArgumentException("side to move must be X or O");
+        };
+        return new Position(board, toMove);
+    }
+
+    public static String format(Board board, Piece toMove) {
+        StringBuilder text = new StringBuilder(board.getRows() * board.getColumns() + 2);
+        for (int r = 0; r < board.getRows(); r++) {
+            for (int c = 0; c < board.getColumns(); c++) {
+                Piece piece = board.getPiece(r, c);
+                text.append(piece == Piece.BLACK ? 'X' : piece == Piece.WHITE ? 'O' : '-');
+            }
+        }
+        return text.append(' ').append(toMove == Piece.BLACK ? 'X' : 'O').toString();
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    // fixed search depth of every position (default 6)
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+    // think time per position in ms instead of a fixed depth; 0 = fixed depth
+    public void setThinkTime(long thinkTimeMs) {
+        this.thinkTimeMs = thinkTimeMs;
+    }
+
+    public void setAlgorithm(AIPlayer.Algorithm algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    // pattern tables for 8x8 positions (e.g. PatternEvaluator.standard()); null for square weights
+    public void setPatternEvaluator(PatternEvaluator patternEvaluator) {
+        this.patternEvaluator = patternEvaluator;
+    }
+
+    // per engine, so a run uses 2 * workers tables of this size
+    public void setTranspositionTableSize(int sizeMb) {
+        this.transpositionTableMb = sizeMb;
+    }
+
+    // positions in flight at once (default 4 per worker)
+    public void setWindow(int window) {
+        this.window = Math.max(1, window);
+    }
+
+    // Clear an engine's transposition table before every position. Otherwise entries left by earlier
+    // positions can change a value slightly, depending on which worker got which positions. The move
+    // ordering history still carries over, so node counts and the choice between moves of equal
+    // value can differ from run to run.
+    public void setReproducible(boolean reproducible) {
+        this.reproducible = reproducible;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        for (AIPlayer engine : created) {
+            engine.close();
+        }
+    }
+}
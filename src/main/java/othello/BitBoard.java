@@ -0,0 +1,349 @@
+package othello;
+
+// 8x8 board stored as two 64-bit masks, bit index = row * 8 + col
+public class BitBoard extends Board {
+    public static final int SIZE = 8;
+
+    private static final long FILE_A = 0x0101010101010101L;
+    private static final long FILE_H = 0x8080808080808080L;
+
+    // E, W, S, N, SE, SW, NE, NW
+    private static final int[] SHIFTS = {1, -1, 8, -8, 9, 7, -7, -9};
+    private static final long[] SHIFT_MASKS = {
+            ~FILE_A, ~FILE_H, -1L, -1L, ~FILE_A, ~FILE_H, ~FILE_A, ~FILE_H
+    };
+
+    private long black;
+    private long white;
+    private long hash;
+    private int[] squareWeights;
+    private int weightedScore; // black minus white, see Board.setSquareWeights
+    private PatternEvaluator patterns;
+    private int[] patternIndices; // kept in step with the discs while patterns is set
+
+    // undo stack for makeMove/unmakeMove: one entry per ply, at most 60 moves per game
+    private long[] undoFlips;
+    private long[] undoHashes;
+    private int[] undoScores;
+    private int[] undoSquares;
+    private int undoTop;
+
+    public BitBoard() {
+        super(SIZE, SIZE, false);
+    }
+
+    public BitBoard(long black, long white) {
+        this();
+        this.black = black;
+        this.white = white;
+        for (long bits = black; bits != 0; bits &= bits - 1) {
+            hash ^= Zobrist.pieceKey(Piece.BLACK, Long.numberOfTrailingZeros(bits));
+        }
+        for (long bits = white; bits != 0; bits &= bits - 1) {
+            hash ^= Zobrist.pieceKey(Piece.WHITE, Long.numberOfTrailingZeros(bits));
+        }
+    }
+
+    private BitBoard(long black, long white, long hash, int[] squareWeights, int weightedScore,
+                     PatternEvaluator patterns, int[] patternIndices) {
+        this();
+        this.black = black;
+        this.white = white;
+        this.hash = hash;
+        this.squareWeights = squareWeights;
+        this.weightedScore = weightedScore;
+        this.patterns = patterns;
+        this.patternIndices = patternIndices == null ? null : patternIndices.clone();
+    }
+
+    // copy any 8x8 board into a bitboard
+    public static BitBoard of(Board board) {
+        if (board instanceof BitBoard bitBoard) {
+            return bitBoard.cloneBoard();
+        }
+        BitBoard result = new BitBoard();
+        for (int r = 0; r < SIZE; r++) {
+            for (int c = 0; c < SIZE; c++) {
+                result.setPiece(r, c, board.getPiece(r, c));
+            }
+        }
+        return result;
+    }
+
+    private static long shift(long bits, int dir) {
+        int s = SHIFTS[dir];
+        return (s > 0 ? bits << s : bits >>> -s) & SHIFT_MASKS[dir];
+    }
+
+    // all empty squares where 'own' can play, as a bitmask
+    public static long legalMoves(long own, long opp) {
+        long empty = ~(own | opp);
+        long moves = 0;
+        for (int dir = 0; dir < 8; dir++) {
+            long x = shift(own, dir) & opp;
+            x |= shift(x, dir) & opp;
+            x |= shift(x, dir) & opp;
+            x |= shift(x, dir) & opp;
+            x |= shift(x, dir) & opp;
+            x |= shift(x, dir) & opp;
+            moves |= shift(x, dir) & empty;
+        }
+        return moves;
+    }
+
+    // discs flipped when 'own' plays on square; 0 means the move is illegal
+    public static long computeFlips(int square, long own, long opp) {
+        long move = 1L << square;
+        if (((own | opp) & move) != 0) return 0;
+
+        long flipped = 0;
+        for (int dir = 0; dir < 8; dir++) {
+            long line = 0;
+            long x = shift(move, dir);
+            while ((x & opp) != 0) {
+                line |= x;
+                x = shift(x, dir);
+            }
+            if ((x & own) != 0) {
+                flipped |= line;
+            }
+        }
+        return flipped;
+    }
+
+    public long legalMoves(Piece piece) {
+        return piece == Piece.BLACK ? legalMoves(black, white) : legalMoves(white, black);
+    }
+
+    public long getBits(Piece piece) {
+        return piece == Piece.BLACK ? black : white;
+    }
+
+    @Override
+    public void placePiece(int rowIndex, int colIndex, Piece piece) {
+        if (!isInside(rowIndex, colIndex)) return;
+        int square = rowIndex * SIZE + colIndex;
+        long own = getBits(piece);
+        long opp = getBits(piece.flip());
+        long flipped = computeFlips(square, own, opp);
+        if (flipped == 0) return;
+
+        hash ^= Zobrist.pieceKey(piece, square) ^ flipHash(flipped);
+        weightedScore += moveWeight(piece, square, flipped);
+        if (patterns != null) PatternEvaluator.update(patternIndices, square, flipped, piece, 1);
+        own |= flipped | (1L << square);
+        opp &= ~flipped;
+        if (piece == Piece.BLACK) {
+            black = own;
+            white = opp;
+        } else {
+            white = own;
+            black = opp;
+        }
+    }
+
+    @Override
+    public boolean makeMove(int square, Piece piece) {
+        long own = getBits(piece);
+        long opp = getBits(piece.flip());
+        long flipped = computeFlips(square, own, opp);
+        if (flipped == 0) return false;
+
+        if (undoFlips == null) {
+            undoFlips = new long[SIZE * SIZE];
+            undoHashes = new long[SIZE * SIZE];
+            undoScores = new int[SIZE * SIZE];
+            undoSquares = new int[SIZE * SIZE];
+        }
+        undoFlips[undoTop] = flipped;
+        undoHashes[undoTop] = hash;
+        undoScores[undoTop] = weightedScore;
+        undoSquares[undoTop] = square;
+        undoTop++;
+
+        hash ^= Zobrist.pieceKey(piece, square) ^ flipHash(flipped);
+        weightedScore += moveWeight(piece, square, flipped);
+        if (patterns != null) PatternEvaluator.update(patternIndices, square, flipped, piece, 1);
+        long bit = 1L << square;
+        if (piece == Piece.BLACK) {
+            black |= flipped | bit;
+            white &= ~flipped;
+        } else {
+            white |= flipped | bit;
+            black &= ~flipped;
+        }
+        return true;
+    }
+
+    @Override
+    public void unmakeMove() {
+        undoTop--;
+        long flipped = undoFlips[undoTop];
+        long bit = 1L << undoSquares[undoTop];
+        hash = undoHashes[undoTop];
+        weightedScore = undoScores[undoTop];
+        if (patterns != null) {
+            Piece mover = (black & bit) != 0 ? Piece.BLACK : Piece.WHITE;
+            PatternEvaluator.update(patternIndices, undoSquares[undoTop], flipped, mover, -1);
+        }
+        if ((black & bit) != 0) {
+            black &= ~(flipped | bit);
+            white |= flipped;
+        } else {
+            white &= ~(flipped | bit);
+            black |= flipped;
+        }
+    }
+
+    @Override
+    public boolean canPlacePiece(int rowIndex, int colIndex, Piece piece) {
+        if (!isInside(rowIndex, colIndex)) return false;
+        return computeFlips(rowIndex * SIZE + colIndex, getBits(piece), getBits(piece.flip())) != 0;
+    }
+
+    @Override
+    public int generateMoves(Piece piece, int[] moves) {
+        long mask = legalMoves(piece);
+        int count = 0;
+        while (mask != 0) {
+            moves[count++] = Long.numberOfTrailingZeros(mask);
+            mask &= mask - 1;
+        }
+        return count;
+    }
+
+    @Override
+    public Piece getPiece(int row, int col) {
+        if (!isInside(row, col)) return null;
+        long bit = 1L << (row * SIZE + col);
+        if ((black & bit) != 0) return Piece.BLACK;
+        if ((white & bit) != 0) return Piece.WHITE;
+        return null;
+    }
+
+    @Override
+    public void setPiece(int row, int col, Piece piece) {
+        if (!isInside(row, col)) return;
+        int square = row * SIZE + col;
+        long bit = 1L << square;
+        Piece old = getPiece(row, col);
+        hash ^= Zobrist.pieceKey(old, square) ^ Zobrist.pieceKey(piece, square);
+        if (squareWeights != null) {
+            weightedScore += (sign(piece) - sign(old)) * squareWeights[square];
+        }
+        if (patterns != null) {
+            PatternEvaluator.addDigit(patternIndices, square, digit(piece) - digit(old));
+        }
+        black &= ~bit;
+        white &= ~bit;
+        if (piece == Piece.BLACK) {
+            black |= bit;
+        } else if (piece == Piece.WHITE) {
+            white |= bit;
+        }
+    }
+
+    @Override
+    public int countMoves(Piece piece) {
+        return Long.bitCount(legalMoves(piece));
+    }
+
+    @Override
+    public void setSquareWeights(int[] weights) {
+        this.squareWeights = weights;
+        this.weightedScore = weights == null ? 0 : weightSum(black) - weightSum(white);
+    }
+
+    @Override
+    public int[] getSquareWeights() {
+        return squareWeights;
+    }
+
+    @Override
+    public int getWeightedScore(Piece piece) {
+        return piece == Piece.BLACK ? weightedScore : -weightedScore;
+    }
+
+    // keep the pattern indices of this evaluator up to date from now on; null stops it
+    public void setPatternEvaluator(PatternEvaluator patterns) {
+        this.patterns = patterns;
+        if (patterns == null) {
+            patternIndices = null;
+            return;
+        }
+        if (patternIndices == null) patternIndices = new int[PatternEvaluator.instanceCount()];
+        PatternEvaluator.computeIndices(black, white, patternIndices);
+    }
+
+    public PatternEvaluator getPatternEvaluator() {
+        return patterns;
+    }
+
+    int[] getPatternIndices() {
+        return patternIndices;
+    }
+
+    @Override
+    public boolean isOver() {
+        return legalMoves(black, white) == 0 && legalMoves(white, black) == 0;
+    }
+
+    @Override
+    public BitBoard cloneBoard() {
+        return new BitBoard(black, white, hash, squareWeights, weightedScore, patterns, patternIndices);
+    }
+
+    @Override
+    public long getHash() {
+        return hash;
+    }
+
+    private static long flipHash(long flipped) {
+        long h = 0;
+        for (; flipped != 0; flipped &= flipped - 1) {
+            h ^= Zobrist.flipKey(Long.numberOfTrailingZeros(flipped));
+        }
+        return h;
+    }
+
+    // change of the black-minus-white weighted score: the new disc counts once, each flipped disc twice
+    private int moveWeight(Piece piece, int square, long flipped) {
+        if (squareWeights == null) return 0;
+        int delta = squareWeights[square] + 2 * weightSum(flipped);
+        return piece == Piece.BLACK ? delta : -delta;
+    }
+
+    private int weightSum(long bits) {
+        int sum = 0;
+        for (; bits != 0; bits &= bits - 1) {
+            sum += squareWeights[Long.numberOfTrailingZeros(bits)];
+        }
+        return sum;
+    }
+
+    private static int sign(Piece piece) {
+        if (piece == null) return 0;
+        return piece == Piece.BLACK ? 1 : -1;
+    }
+
+    // base-3 digit of a square in a pattern index
+    private static int digit(Piece piece) {
+        if (piece == null) return 0;
+        return piece == Piece.BLACK ? 1 : 2;
+    }
+
+    @Override
+    public boolean isFull() {
+        return (black | white) == -1L;
+    }
+
+    @Override
+    public int countPieces(Piece piece) {
+        if (piece == null) return SIZE * SIZE - Long.bitCount(black | white);
+        return Long.bitCount(getBits(piece));
+    }
+
+    private static boolean isInside(int row, int col) {
+        return row >= 0 && row < SIZE && col >= 0 && col < SIZE;
+    }
+}
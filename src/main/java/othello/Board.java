@@ -1,10 +1,29 @@
 package othello;
 
+import java.util.Arrays;
+
 public class Board {
+    private static final int[] DIR_ROW = {-1, -1, -1, 0, 0, 1, 1, 1};
+    private static final int[] DIR_COL = {-1, 0, 1, -1, 1, -1, 0, 1};
+
     private int rows;
     private int columns;
 
     private Piece[][] board;
+    private long hash; // khoa Zobrist cua cac quan tren ban, cap nhat moi khi dat/lat quan
+
+    // tong trong so o cua quan den tru quan trang, cap nhat moi khi dat/lat quan (xem setSquareWeights)
+    private int[] squareWeights;
+    private int weightedScore;
+
+    // ngan xep hoan tac cho makeMove/unmakeMove, cap phat mot lan khi dung lan dau
+    private int[] undoSquares;
+    private int[] undoFlipStart;
+    private long[] undoHashes;
+    private int[] undoScores;
+    private int[] flipStack;
+    private int undoTop;
+    private int flipTop;
 
 
     public Board(int rows, int columns) {
@@ -14,35 +33,125 @@ public class Board {
         this.board = new Piece[rows][columns];
 
     }
+
+    // cho lop con tu quan ly cach luu o co (vd: BitBoard)
+    protected Board(int rows, int columns, boolean allocateCells) {
+        this.rows = rows;
+        this.columns = columns;
+        if (allocateCells) {
+            this.board = new Piece[rows][columns];
+        }
+    }
     public void placePiece(int rowIndex, int colIndex, Piece piece) {
         if (!canPlacePiece(rowIndex, colIndex, piece)) return;
 
         board[rowIndex][colIndex] = piece;
+        hash ^= Zobrist.pieceKey(piece, rowIndex * columns + colIndex);
+        weightedScore += sign(piece) * weight(rowIndex * columns + colIndex);
 
-        int[] dirRow = {-1, -1, -1, 0, 0, 1, 1, 1};
-        int[] dirCol = {-1, 0, 1, -1, 1, -1, 0, 1};
+        for (int i = 0; i < 8; i++) {
+            if (canCaptureAlongDirection(rowIndex, colIndex, DIR_ROW[i], DIR_COL[i], piece)) {
+                captureAlongDirection(rowIndex, colIndex, DIR_ROW[i], DIR_COL[i], piece);
+            }
+        }
+    }
 
+    // Dat quan tai o square (= row * columns + col) va ghi lai cac quan bi lat de unmakeMove.
+    // Tra ve false (khong doi ban co) neu nuoc di khong hop le.
+    public boolean makeMove(int square, Piece piece) {
+        int rowIndex = square / columns;
+        int colIndex = square % columns;
+        if (!canPlacePiece(rowIndex, colIndex, piece)) return false;
+
+        if (undoSquares == null) {
+            int cells = rows * columns;
+            undoSquares = new int[cells];
+            undoFlipStart = new int[cells];
+            undoHashes = new long[cells];
+            undoScores = new int[cells];
+            // trung binh moi nuoc lat vai quan; ngan xep lat tang dan khi can
+            flipStack = new int[cells * 4];
+        }
+        // moi nuoc lat toi da 8 * (max(rows, columns) - 2) quan
+        if (flipStack.length - flipTop < 8 * Math.max(rows, columns)) {
+            flipStack = Arrays.copyOf(flipStack, flipStack.length * 2);
+        }
+        undoSquares[undoTop] = square;
+        undoFlipStart[undoTop] = flipTop;
+        undoHashes[undoTop] = hash;
+        undoScores[undoTop] = weightedScore;
+        undoTop++;
+
+        board[rowIndex][colIndex] = piece;
+        hash ^= Zobrist.pieceKey(piece, square);
+        weightedScore += sign(piece) * weight(square);
         for (int i = 0; i < 8; i++) {
-            if (canCaptureAlongDirection(rowIndex, colIndex, dirRow[i], dirCol[i], piece)) {
-                captureAlongDirection(rowIndex, colIndex, dirRow[i], dirCol[i], piece);
+            if (canCaptureAlongDirection(rowIndex, colIndex, DIR_ROW[i], DIR_COL[i], piece)) {
+                int curRow = rowIndex + DIR_ROW[i];
+                int curCol = colIndex + DIR_COL[i];
+                while (board[curRow][curCol] != piece) {
+                    board[curRow][curCol] = piece;
+                    flipStack[flipTop++] = curRow * columns + curCol;
+                    hash ^= Zobrist.flipKey(curRow * columns + curCol);
+                    weightedScore += 2 * sign(piece) * weight(curRow * columns + curCol);
+                    curRow += DIR_ROW[i];
+                    curCol += DIR_COL[i];
+                }
             }
         }
+        return true;
+    }
+
+    // Hoan tac nuoc makeMove gan nhat
+    public void unmakeMove() {
+        undoTop--;
+        int square = undoSquares[undoTop];
+        Piece opponentPiece = board[square / columns][square % columns].flip();
+        board[square / columns][square % columns] = null;
+        int start = undoFlipStart[undoTop];
+        while (flipTop > start) {
+            int flipped = flipStack[--flipTop];
+            board[flipped / columns][flipped % columns] = opponentPiece;
+        }
+        hash = undoHashes[undoTop];
+        weightedScore = undoScores[undoTop];
     }
     //kiem tra xem co the dat quan o vi tri do khong
     public boolean canPlacePiece(int rowIndex, int colIndex, Piece piece) {
         if (board[rowIndex][colIndex] != null) return false; // Ô phải trống
 
-        int[] dirRow = {-1, -1, -1, 0, 0, 1, 1, 1};
-        int[] dirCol = {-1, 0, 1, -1, 1, -1, 0, 1};
-
         for (int i = 0; i < 8; i++) {
-            if (canCaptureAlongDirection(rowIndex, colIndex, dirRow[i], dirCol[i], piece)) {
+            if (canCaptureAlongDirection(rowIndex, colIndex, DIR_ROW[i], DIR_COL[i], piece)) {
                 return true;
             }
         }
         return false;
     }
 
+    // Cac o (row * columns + col) se bi lat neu 'piece' dat tai (rowIndex, colIndex), khong doi ban co.
+    // Mang rong neu nuoc di khong hop le. Chi dung getPiece nen dung cho moi lop con.
+    public int[] flippedSquares(int rowIndex, int colIndex, Piece piece) {
+        if (getPiece(rowIndex, colIndex) != null) return new int[0];
+        Piece opponentPiece = piece.flip();
+        int[] flipped = new int[rows * columns];
+        int count = 0;
+        for (int i = 0; i < 8; i++) {
+            int curRow = rowIndex + DIR_ROW[i];
+            int curCol = colIndex + DIR_COL[i];
+            int run = 0;
+            while (isInsideBoard(curRow, curCol) && getPiece(curRow, curCol) == opponentPiece) {
+                flipped[count + run++] = curRow * columns + curCol;
+                curRow += DIR_ROW[i];
+                curCol += DIR_COL[i];
+            }
+            // chi giu day quan dich neu duoc chan boi quan cua minh
+            if (run > 0 && isInsideBoard(curRow, curCol) && getPiece(curRow, curCol) == piece) {
+                count += run;
+            }
+        }
+        return Arrays.copyOf(flipped, count);
+    }
+
     //kiem tra xem co the an quan tren huong do khong
     private boolean canCaptureAlongDirection(int rowIndex, int colIndex, int dRow, int dCol, Piece piece) {
         Piece opponentPiece = piece.flip();
@@ -81,6 +190,8 @@ public class Board {
             }
 
             board[curRow][curCol] = piece; // Lật quân
+            hash ^= Zobrist.flipKey(curRow * columns + curCol);
+            weightedScore += 2 * sign(piece) * weight(curRow * columns + curCol);
 
             curRow += dRow;
             curCol += dCol;
@@ -97,10 +208,46 @@ public class Board {
 
     public void setPiece(int row, int col, Piece piece) {
         if (isInsideBoard(row, col)) {
+            hash ^= Zobrist.pieceKey(board[row][col], row * columns + col) ^ Zobrist.pieceKey(piece, row * columns + col);
+            weightedScore += (sign(piece) - sign(board[row][col])) * weight(row * columns + col);
             board[row][col] = piece;
         }
     }
 
+    // Trong so cho tung o (chi so row * columns + col) de ban co tu cap nhat getWeightedScore; null de tat
+    public void setSquareWeights(int[] weights) {
+        this.squareWeights = weights;
+        this.weightedScore = 0;
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                weightedScore += sign(board[r][c]) * weight(r * columns + c);
+            }
+        }
+    }
+
+    public int[] getSquareWeights() {
+        return squareWeights;
+    }
+
+    // Tong trong so o cua quan 'piece' tru tong trong so o cua doi thu
+    public int getWeightedScore(Piece piece) {
+        return piece == Piece.BLACK ? weightedScore : -weightedScore;
+    }
+
+    private int weight(int square) {
+        return squareWeights == null ? 0 : squareWeights[square];
+    }
+
+    private static int sign(Piece piece) {
+        if (piece == null) return 0;
+        return piece == Piece.BLACK ? 1 : -1;
+    }
+
+    // Khoa Zobrist cua ban co (khong tinh ben di); ket hop voi Zobrist.sideKey khi can
+    public long getHash() {
+        return hash;
+    }
+
     public int getRows() {
         return rows;
     }
@@ -109,6 +256,32 @@ public class Board {
         return columns;
     }
 
+    // Ghi cac nuoc di hop le (chi so o = row * columns + col) vao moves, tra ve so nuoc di
+    public int generateMoves(Piece piece, int[] moves) {
+        int count = 0;
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                if (canPlacePiece(r, c, piece)) {
+                    moves[count++] = r * columns + c;
+                }
+            }
+        }
+        return count;
+    }
+
+    // so nuoc di hop le cua 'piece'
+    public int countMoves(Piece piece) {
+        int count = 0;
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                if (canPlacePiece(r, c, piece)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
     public boolean isOver() {
         // Kiểm tra xem cả hai người chơi đều không có nước đi hợp lệ
         boolean blackHasMove = false;
@@ -130,6 +303,7 @@ public class Board {
 
     public Board cloneBoard() {
         Board newBoard = new Board(this.rows, this.columns);
+        newBoard.squareWeights = this.squareWeights;
         for (int r = 0; r < this.rows; r++) {
             for (int c = 0; c < this.columns; c++) {
                 newBoard.setPiece(r, c, this.getPiece(r, c));
@@ -0,0 +1,213 @@
+package othello;
+
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+
+// Exact endgame search on 8x8 bitboards: negamax alpha-beta to the end of the game, returning the
+// final disc difference for the side to move (empty squares go to the winner). A side without a
+// move passes; two passes in a row end the game.
+// Move ordering: with many empties, fastest-first (fewest opponent replies, then parity); near
+// the end, parity only (moves in quadrants with an odd number of empties first).
+// WLD mode searches with a null window around 0 and only tells win (+1), draw (0) or loss (-1).
+// One instance per thread; all tables are preallocated.
+public class EndgameSolver {
+    public static final int MAX_EMPTIES = 24;
+
+    // below this many empties fastest-first costs more than it saves
+    private static final int FASTEST_FIRST_EMPTIES = 7;
+    // transposition table only where subtrees are big enough to pay for it
+    private static final int TABLE_EMPTIES = 9;
+    private static final int TABLE_BITS = 18;
+
+    private static final long[] QUADRANTS = {
+            0x000000000F0F0F0FL, 0x00000000F0F0F0F0L, 0x0F0F0F0F00000000L, 0xF0F0F0F000000000L
+    };
+
+    // 0-based ply can grow by one per move and one per pass
+    private final int[][] moves = new int[2 * MAX_EMPTIES + 2][64];
+    private final int[][] scores = new int[2 * MAX_EMPTIES + 2][64];
+
+    private final long[] tableOwn = new long[1 << TABLE_BITS];
+    private final long[] tableOpp = new long[1 << TABLE_BITS];
+    private final int[] tableLower = new int[1 << TABLE_BITS];
+    private final int[] tableUpper = new int[1 << TABLE_BITS];
+    private final byte[] tableMove = new byte[1 << TABLE_BITS];
+
+    private final BooleanSupplier stopCheck;
+    private long nodes;
+    private boolean aborted;
+    private int bestMove;
+
+    public EndgameSolver() {
+        this(() -> false);
+    }
+
+    // stopCheck is polled every few thousand nodes; when it returns true the solve is abandoned
+    public EndgameSolver(BooleanSupplier stopCheck) {
+        this.stopCheck = stopCheck;
+    }
+
+    // exact final disc difference for toMove with best play by both sides
+    public int solve(BitBoard board, Piece toMove) {
+        return run(board, toMove, -64, 64);
+    }
+
+    // +1 win, 0 draw, -1 loss for toMove
+    public int solveWld(BitBoard board, Piece toMove) {
+        return Integer.signum(run(board, toMove, -1, 1));
+    }
+
+    // best move (row * 8 + col) found by the last solve, -1 if toMove had to pass
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    // true if the last solve was stopped; its result is then meaningless
+    public boolean isAborted() {
+        return aborted;
+    }
+
+    private int run(BitBoard board, Piece toMove, int alpha, int beta) {
+        nodes = 0;
+        aborted = false;
+        bestMove = -1;
+        Arrays.fill(tableOwn, 0);
+        Arrays.fill(tableOpp, 0);
+        long own = board.getBits(toMove);
+        long opp = board.getBits(toMove.flip());
+        if (64 - Long.bitCount(own | opp) > MAX_EMPTIES) {
+            throw new IllegalArgumentException("too many empty squares for an exact solve");
+        }
+        return search(own, opp, alpha, beta, 0);
+    }
+
+    private int search(long own, long opp, int alpha, int beta, int ply) {
+        nodes++;
+        if ((nodes & 4095) == 0 && stopCheck.getAsBoolean()) {
+            aborted = true;
+        }
+        if (aborted) return 0;
+
+        long legal = BitBoard.legalMoves(own, opp);
+        if (legal == 0) {
+            if (BitBoard.legalMoves(opp, own) == 0) {
+                return finalScore(own, opp);
+            }
+            return -search(opp, own, -beta, -alpha, ply + 1);
+        }
+
+        long empty = ~(own | opp);
+        int empties = Long.bitCount(empty);
+        int slot = -1;
+        int tableMoveSquare = -1;
+        if (empties >= TABLE_EMPTIES) {
+            slot = tableSlot(own, opp);
+            if (tableOwn[slot] == own && tableOpp[slot] == opp) {
+                int lower = tableLower[slot];
+                int upper = tableUpper[slot];
+                if (lower >= beta) return lower;
+                if (upper <= alpha) return upper;
+                if (lower == upper) return lower;
+                alpha = Math.max(alpha, lower);
+                beta = Math.min(beta, upper);
+                tableMoveSquare = tableMove[slot];
+            }
+        }
+
+        int[] list = moves[ply];
+        int count = orderMoves(list, scores[ply], legal, own, opp, empty, empties, tableMoveSquare);
+
+        int alphaOrig = alpha;
+        int best = -65;
+        int bestSquare = list[0];
+        for (int i = 0; i < count; i++) {
+            int square = list[i];
+            long flipped = BitBoard.computeFlips(square, own, opp);
+            int value = -search(opp & ~flipped, own | flipped | (1L << square), -beta, -alpha, ply + 1);
+            if (aborted) return 0;
+            if (value > best) {
+                best = value;
+                bestSquare = square;
+                if (value > alpha) {
+                    alpha = value;
+                    if (alpha >= beta) break;
+                }
+            }
+        }
+        if (ply == 0) {
+            bestMove = bestSquare;
+        }
+
+        if (slot >= 0) {
+            tableOwn[slot] = own;
+            tableOpp[slot] = opp;
+            tableLower[slot] = best > alphaOrig ? best : -64;
+            tableUpper[slot] = best < beta ? best : 64;
+            tableMove[slot] = (byte) bestSquare;
+        }
+        return best;
+    }
+
+    // writes the moves in search order and returns their count
+    private int orderMoves(int[] list, int[] score, long legal, long own, long opp, long empty, int empties,
+                           int firstMove) {
+        int oddQuadrants = 0;
+        for (int q = 0; q < 4; q++) {
+            if ((Long.bitCount(empty & QUADRANTS[q]) & 1) != 0) oddQuadrants |= 1 << q;
+        }
+        int count = 0;
+        for (; legal != 0; legal &= legal - 1) {
+            int square = Long.numberOfTrailingZeros(legal);
+            int s = (oddQuadrants & quadrantBit(square)) != 0 ? 1 : 0;
+            if (empties >= FASTEST_FIRST_EMPTIES) {
+                long flipped = BitBoard.computeFlips(square, own, opp);
+                long newOwn = own | flipped | (1L << square);
+                long newOpp = opp & ~flipped;
+                // fewer opponent replies first; parity breaks ties
+                s += (64 - Long.bitCount(BitBoard.legalMoves(newOpp, newOwn))) * 2;
+            }
+            if (square == firstMove) s = Integer.MAX_VALUE;
+            list[count] = square;
+            score[count] = s;
+            count++;
+        }
+        for (int i = 1; i < count; i++) {
+            int move = list[i];
+            int s = score[i];
+            int j = i - 1;
+            while (j >= 0 && score[j] < s) {
+                list[j + 1] = list[j];
+                score[j + 1] = score[j];
+                j--;
+            }
+            list[j + 1] = move;
+            score[j + 1] = s;
+        }
+        return count;
+    }
+
+    private static int quadrantBit(int square) {
+        int row = square >>> 3;
+        int col = square & 7;
+        return 1 << ((row >= 4 ? 2 : 0) + (col >= 4 ? 1 : 0));
+    }
+
+    private static int finalScore(long own, long opp) {
+        int ownCount = Long.bitCount(own);
+        int oppCount = Long.bitCount(opp);
+        int diff = ownCount - oppCount;
+        int empties = 64 - ownCount - oppCount;
+        if (diff > 0) return diff + empties;
+        if (diff < 0) return diff - empties;
+        return 0;
+    }
+
+    private static int tableSlot(long own, long opp) {
+        long h = own * 0x9E3779B97F4A7C15L ^ Long.rotateLeft(opp * 0xC2B2AE3D27D4EB4FL, 31);
+        return (int) (h >>> (64 - TABLE_BITS));
+    }
+}
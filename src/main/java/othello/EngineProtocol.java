@@ -0,0 +1,356 @@
+package othello;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+// Line-based engine protocol for one session, independent of the transport (stdin/stdout or a
+// socket; see othello.tools.EngineServer). Modeled on GTP: every command gets one response,
+// "= result" on success or "? message" on failure, followed by an empty line. A command may start
+// with a numeric id, which is echoed ("=7 f5"). Searches run in the background: "go" and "genmove"
+// answer when the search ends, and meanwhile only commands that leave the position alone are
+// accepted; "stop" ends a search early with the best move found so far.
+// Moves are squares in transcript notation ("f5"), or "pass".
+//   protocol_version | name | version | ping
+//   boardsize N | newgame | setboard SQUARES SIDE (as in BatchEvaluator) | showboard | legal
+//   play [COLOR] MOVE | undo
+//   go [depth N] [time MS]     best move and search statistics for the side to move
+//   genmove [COLOR]            searches with the current settings and plays the move
+//   stop | quit
+//   set depth N | set time MS | set algorithm NAME | set patterns on|off | set hash MB
+//   set endgame N              solve 8x8 positions with N empties or fewer exactly (default 0, off)
+public class EngineProtocol implements AutoCloseable {
+    public static final String VERSION = "1";
+
+    private final EngineService engine;
+    private final Consumer<String> output;
+
+    private Board board;
+    private Piece toMove;
+    private final List<Integer> history = new ArrayList<>(); // squares played, -1 for a pass
+
+    // settings of the next search; engines are made again when one of them changes
+    private int depth = 6;
+    private long thinkTimeMs;
+    private AIPlayer.Algorithm algorithm = AIPlayer.Algorithm.PVS;
+    private boolean patterns = true;
+    private int hashMb = 16;
+    private int endgameEmpties;
+    private final AIPlayer[] engines = new AIPlayer[2];
+
+    private CompletableFuture<SearchStats> search;
+    private AIPlayer searching;
+    private volatile boolean stopping;
+    private boolean closed;
+
+    // output gets each complete response (without the final empty line) from the thread that
+    // handles the command or, for searches, from the search thread; calls never overlap
+    public EngineProtocol(EngineService engine, Consumer<String> output) {
+        this.engine = engine;
+        this.output = output;
+        newGame(BitBoard.SIZE);
+    }
+
+    // handles one command line; false once the session should end ("quit")
+    public synchronized boolean handle(String line) {
+        String[] words = line.strip().split("\\s+");
+        if (words.length == 0 || words[0].isEmpty() || words[0].startsWith("#")) return true;
+        String id = "";
+        int first = 0;
+        if (Character.isDigit(words[0].charAt(0))) {
+            id = words[0];
+            first = 1;
+            if (words.length == 1) {
+                respond(id, false, "missing command");
+                return true;
+            }
+        }
+        String command = words[first].toLowerCase(Locale.ROOT);
+        String[] args = new String[words.length - first - 1];
+        System.arraycopy(words, first + 1, args, 0, args.length);
+        try {
+            return execute(id, command, args);
+        } catch (IllegalArgumentException e) {
+            respond(id, false, e.getMessage());
+            return true;
+        }
+    }
+
+    private boolean execute(String id, String command, String[] args) {
+        switch (command) {
+            case "protocol_version", "version" -> respond(id, true, VERSION);
+            case "name" -> respond(id, true, "othello");
+            case "ping" -> respond(id, true, "pong");
+            case "quit" -> {
+                stopSearch();
+                respond(id, true, "");
+                return false;
+            }
+            case "stop" -> {
+                stopSearch();
+                respond(id, true, "");
+            }
+            case "showboard" -> respond(id, true, "\n" + boardText());
+            case "legal" -> respond(id, true, legalMoves());
+            case "set" -> set(id, args);
+            case "boardsize", "newgame", "clear_board", "setboard", "play", "undo", "go", "genmove" -> {
+                if (search != null) {
+                    respond(id, false, "busy");
+                } else {
+                    changePosition(id, command, args);
+                }
+            }
+            default -> respond(id, false, "unknown command " + command);
+        }
+        return true;
+    }
+
+    private void changePosition(String id, String command, String[] args) {
+        switch (command) {
+            case "boardsize" -> {
+                int size = Integer.parseInt(argument(args, 0));
+                if (size < 4 || size > LargeBitBoard.MAX_SIZE || size % 2 != 0) {
+                    throw new IllegalArgumentException("board size must be even, 4 to " + LargeBitBoard.MAX_SIZE);
+                }
+                newGame(size);
+                respond(id, true, "");
+            }
+            case "newgame", "clear_board" -> {
+                newGame(board.getRows());
+                respond(id, true, "");
+            }
+            case "setboard" -> {
+                BatchEvaluator.Position position = BatchEvaluator.parse(String.join(" ", args));
+                board = position.board();
+                toMove = position.toMove();
+                history.clear();
+                respond(id, true, "");
+            }
+            case "play" -> {
+                if (args.length > 1) toMove = color(args[0]);
+                play(parseMove(argument(args, args.length - 1)));
+                respond(id, true, "");
+            }
+            case "undo" -> {
+                if (history.isEmpty()) throw new IllegalArgumentException("nothing to undo");
+                int move = history.remove(history.size() - 1);
+                if (move >= 0) board.unmakeMove();
+                toMove = toMove.flip();
+                respond(id, true, "");
+            }
+            case "go" -> {
+                int goDepth = depth;
+                long goTime = thinkTimeMs;
+                for (int i = 0; i + 1 < args.length; i += 2) {
+                    switch (args[i]) {
+                        case "depth" -> {
+                            goDepth = Integer.parseInt(args[i + 1]);
+                            goTime = 0;
+                        }
+                        case "time" -> goTime = Long.parseLong(args[i + 1]);
+                        default -> throw new IllegalArgumentException("unknown go option " + args[i]);
+                    }
+                }
+                startSearch(id, goDepth, goTime, false);
+            }
+            case "genmove" -> {
+                if (args.length > 0) toMove = color(args[0]);
+                startSearch(id, depth, thinkTimeMs, true);
+            }
+            default -> throw new IllegalStateException(command);
+        }
+    }
+
+    private void startSearch(String id, int searchDepth, long searchTime, boolean playMove) {
+        AIPlayer ai = engine(toMove);
+        ai.setDepth(searchDepth);
+        ai.setThinkTime(searchTime);
+        Piece side = toMove;
+        searching = ai;
+        stopping = false;
+        // a stop that comes before the search thread starts is cleared when it does; the first
+        // progress report repeats it
+        search = engine.search(ai, board, progress -> {
+            if (stopping) ai.stop();
+        });
+        search.whenComplete((stats, error) -> finishSearch(id, side, stats, error, playMove));
+    }
+
+    private synchronized void finishSearch(String id, Piece side, SearchStats stats, Throwable error,
+                                           boolean playMove) {
+        search = null;
+        searching = null;
+        if (closed) return;
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+            respond(id, false, cause instanceof CancellationException ? "cancelled" : String.valueOf(cause));
+            return;
+        }
+        int move = stats.move() == null ? -1 : stats.move()[0] * board.getColumns() + stats.move()[1];
+        if (move < 0 && board.countMoves(side) > 0) {
+            respond(id, false, "stopped before a move was found");
+            return;
+        }
+        if (playMove) {
+            toMove = side;
+            play(move);
+            respond(id, true, moveName(move));
+            return;
+        }
+        StringBuilder text = new StringBuilder(moveName(move));
+        text.append(" value ").append(stats.bestValue())
+                .append(" depth ").append(stats.depth())
+                .append(" nodes ").append(stats.nodes())
+                .append(" time ").append(stats.elapsedNanos() / 1_000_000)
+                .append(" nps ").append(stats.nodesPerSecond())
+                .append(" pv");
+        for (int square : stats.principalVariation()) {
+            text.append(' ').append(moveName(square));
+        }
+        respond(id, true, text.toString());
+    }
+
+    private void stopSearch() {
+        if (searching != null) {
+            // the search then answers with the best move of its last finished depth
+            stopping = true;
+            searching.stop();
+        }
+    }
+
+    private void set(String id, String[] args) {
+        String name = argument(args, 0);
+        String value = argument(args, 1);
+        if (search != null) {
+            respond(id, false, "busy");
+            return;
+        }
+        switch (name) {
+            case "depth" -> depth = Integer.parseInt(value);
+            case "time" -> thinkTimeMs = Long.parseLong(value);
+            case "algorithm" -> algorithm = AIPlayer.Algorithm.valueOf(value.toUpperCase(Locale.ROOT));
+            case "patterns" -> patterns = value.equals("on") || value.equals("true");
+            case "hash" -> hashMb = Integer.parseInt(value);
+            case "endgame" -> endgameEmpties = Integer.parseInt(value);
+            default -> throw new IllegalArgumentException("unknown setting " + name);
+        }
+        closeEngines();
+        respond(id, true, "");
+    }
+
+    private void closeEngines() {
+        for (int i = 0; i < engines.length; i++) {
+            if (engines[i] != null) {
+                engines[i].close();
+                engines[i] = null;
+            }
+        }
+    }
+
+    private AIPlayer engine(Piece piece) {
+        int index = piece == Piece.BLACK ? 0 : 1;
+        if (engines[index] == null) {
+            AIPlayer ai = new AIPlayer("Engine", piece, depth, algorithm);
+            ai.setThreads(1);
+            ai.setTranspositionTableSize(hashMb);
+            ai.setEndgameSolver(endgameEmpties, false);
+            ai.setPatternEvaluator(patterns ? PatternEvaluator.standard() : null);
+            engines[index] = ai;
+        }
+        return engines[index];
+    }
+
+    private void newGame(int size) {
+        board = GameRecord.startPosition(size, size);
+        toMove = Piece.BLACK;
+        history.clear();
+    }
+
+    // plays a move (or a pass, -1) for the side to move and hands the turn over
+    private void play(int move) {
+        if (move < 0) {
+            if (board.countMoves(toMove) > 0) throw new IllegalArgumentException("cannot pass with a legal move");
+        } else if (!board.makeMove(move, toMove)) {
+            throw new IllegalArgumentException("illegal move " + moveName(move));
+        }
+        history.add(move);
+        toMove = toMove.flip();
+    }
+
+    private int parseMove(String text) {
+        String move = text.toLowerCase(Locale.ROOT);
+        if (move.equals("pass") || move.equals("pa")) return -1;
+        int col = move.charAt(0) - 'a';
+        int row;
+        try {
+            row = Integer.parseInt(move.substring(1)) - 1;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("not a move: " + text);
+        }
+        if (col < 0 || col >= board.getColumns() || row < 0 || row >= board.getRows()) {
+            throw new IllegalArgumentException("not a square: " + text);
+        }
+        return row * board.getColumns() + col;
+    }
+
+    private String moveName(int move) {
+        return move < 0 ? "pass" : GameRecord.squareName(move, board.getColumns());
+    }
+
+    private static Piece color(String text) {
+        return switch (text.toLowerCase(Locale.ROOT)) {
+            case "b", "black", "x" -> Piece.BLACK;
+            case "w", "white", "o" -> Piece.WHITE;
+            default -> throw new IllegalArgumentException("not a color: " + text);
+        };
+    }
+
+    private static String argument(String[] args, int index) {
+        if (index < 0 || index >= args.length) throw new IllegalArgumentException("missing argument");
+        return args[index];
+    }
+
+    private String legalMoves() {
+        int[] moves = new int[board.getRows() * board.getColumns()];
+        int count = board.generateMoves(toMove, moves);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) text.append(' ');
+            text.append(moveName(moves[i]));
+        }
+        return count == 0 ? "pass" : text.toString();
+    }
+
+    private String boardText() {
+        StringBuilder text = new StringBuilder("  ");
+        for (int c = 0; c < board.getColumns(); c++) {
+            text.append(' ').append((char) ('a' + c));
+        }
+        for (int r = 0; r < board.getRows(); r++) {
+            text.append('\n').append(String.format("%2d", r + 1));
+            for (int c = 0; c < board.getColumns(); c++) {
+                Piece piece = board.getPiece(r, c);
+                text.append(' ').append(piece == Piece.BLACK ? 'X' : piece == Piece.WHITE ? 'O' : '-');
+            }
+        }
+        return text.append("\n").append(toMove == Piece.BLACK ? "X" : "O").append(" to move").toString();
+    }
+
+    private synchronized void respond(String id, boolean success, String text) {
+        output.accept((success ? "=" : "?") + id + (text.isEmpty() || text.startsWith("\n") ? "" : " ") + text);
+    }
+
+    @Override
+    public synchronized void close() {
+        // the session is gone, so a search still running is not answered
+        closed = true;
+        if (search != null) {
+            search.cancel(false);
+        }
+        closeEngines();
+    }
+}
@@ -0,0 +1,77 @@
+package othello;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// Runs AI searches off the caller's thread (one platform thread per running search).
+// The returned future completes with the search statistics; stats.move() is {row, col}, or null
+// when the AI has no move.
+// Cancelling the future stops the search right away; its result is then dropped.
+// A fixed-depth search deepens one depth at a time with every algorithm, so AIPlayer.stop() ends
+// it with the best move of the last finished depth.
+public class EngineService implements AutoCloseable {
+    // Searches are CPU-bound and never block, so they get platform threads: on virtual threads
+    // they could hold every carrier and starve the virtual threads that serve protocol sessions,
+    // including the one that would deliver their stop.
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "engine-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // progress is delivered on the search thread; the board is copied before this returns
+    public CompletableFuture<SearchStats> search(AIPlayer ai, Board board, Consumer<SearchProgress> progress) {
+        Board snapshot = board.cloneBoard();
+        return run(ai, () -> {
+            ai.setSearchListener(progress);
+            try {
+                return ai.calculateStoppable(snapshot);
+            } finally {
+                ai.setSearchListener(null);
+            }
+        });
+    }
+
+    // AIPlayer.analyze in the background; each finished depth goes to progress on the search
+    // thread. The future completes with the last finished depth (null if toMove has no move).
+    public CompletableFuture<Analysis> analyze(AIPlayer ai, Board board, Piece toMove, int maxDepth,
+                                               Consumer<Analysis> progress) {
+        Board snapshot = board.cloneBoard();
+        return run(ai, () -> ai.analyze(snapshot, toMove, maxDepth, progress));
+    }
+
+    private <T> CompletableFuture<T> run(AIPlayer ai, Supplier<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled()) {
+                ai.stop();
+            }
+        });
+
+        executor.execute(() -> {
+            // one search per player at a time: a cancelled search may still be unwinding
+            ai.searchLock.lock();
+            try {
+                ai.clearStop();
+                // a cancel before this point is seen here, a later one through ai.stop()
+                if (future.isDone()) {
+                    return;
+                }
+                future.complete(task.get());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            } finally {
+                ai.searchLock.unlock();
+            }
+        });
+        return future;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
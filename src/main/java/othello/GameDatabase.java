@@ -0,0 +1,178 @@
+package othello;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Append-only file of game records, read back through memory-mapped windows so a scan over
+// millions of games never holds more than one window and one game in memory.
+// File layout (little endian):
+//   header, 8 bytes: magic "OGD1", reserved (int)
+//   games, 5 + moves bytes each: move count (unsigned byte), rows (unsigned byte),
+//                     columns (unsigned byte), result (short, black minus white discs),
+//                     one square (unsigned byte, row * columns + col) per move
+// A game cut short at the end of the file (a crash while appending) is ignored by the reader.
+public final class GameDatabase {
+    private static final int MAGIC = 0x3144474F; // "OGD1"
+    private static final int HEADER_BYTES = 8;
+    private static final int GAME_HEADER_BYTES = 5;
+    // bytes mapped at a time; a game never spans more than 5 + 252 bytes, so any window works
+    private static final long WINDOW_BYTES = 64L << 20;
+
+    private GameDatabase() {
+    }
+
+    public static void append(Path file, GameRecord game) throws IOException {
+        try (Writer writer = Writer.open(file)) {
+            writer.add(game);
+        }
+    }
+
+    public static Reader open(Path file) throws IOException {
+        return new Reader(file);
+    }
+
+    // Appends games to a (possibly new) database file. Each game goes out in one write once
+    // the buffer fills or the writer is closed.
+    public static final class Writer implements Closeable {
+        private final OutputStream out;
+        private final byte[] game = new byte[GAME_HEADER_BYTES + GameRecord.MAX_SIZE * GameRecord.MAX_SIZE];
+        private long count;
+
+        private Writer(OutputStream out) {
+            this.out = out;
+        }
+
+        public static Writer open(Path file) throws IOException {
+            if (file.toAbsolutePath().getParent() != null) {
+                Files.createDirectories(file.toAbsolutePath().getParent());
+            }
+            boolean created = !Files.exists(file) || Files.size(file) == 0;
+            if (!created) {
+                checkHeader(file);
+            }
+            Writer writer = new Writer(new BufferedOutputStream(Files.newOutputStream(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE), 1 << 16));
+            if (created) {
+                writer.out.write(ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN)
+                        .putInt(MAGIC).putInt(0).array());
+            }
+            return writer;
+        }
+
+        public void add(GameRecord record) throws IOException {
+            int moves = record.moveCount();
+            game[0] = (byte) moves;
+            game[1] = (byte) record.rows();
+            game[2] = (byte) record.columns();
+            game[3] = (byte) record.result();
+            game[4] = (byte) (record.result() >> 8);
+            System.arraycopy(record.moves(), 0, game, GAME_HEADER_BYTES, moves);
+            out.write(game, 0, GAME_HEADER_BYTES + moves);
+            count++;
+        }
+
+        // games added through this writer
+        public long count() {
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    private static void checkHeader(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+            }
+            if (header.hasRemaining() || header.getInt(0) != MAGIC) {
+                throw new IllegalArgumentException(file + " is not a game database");
+            }
+        }
+    }
+
+    // Cursor over the games of a database file, in file order:
+    //   while (reader.next()) { ... reader.moveCount(), reader.move(i), reader.record() ... }
+    // Reading the current game through the accessors allocates nothing.
+    public static final class Reader implements Closeable {
+        private final FileChannel channel;
+        private final long size;
+        private MappedByteBuffer window;
+        private long windowStart;
+        private long position = HEADER_BYTES; // file offset of the next game
+        private int offset = -1; // offset of the current game in the window
+
+        private Reader(Path file) throws IOException {
+            checkHeader(file);
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            size = channel.size();
+            map(0);
+        }
+
+        private void map(long start) throws IOException {
+            windowStart = start;
+            window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW_BYTES, size - start));
+            window.order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        // moves to the next game; false at the end of the file
+        public boolean next() throws IOException {
+            if (position + GAME_HEADER_BYTES > size) return false;
+            if (position + GAME_HEADER_BYTES > windowStart + window.capacity()) {
+                map(position);
+            }
+            int moves = window.get((int) (position - windowStart)) & 0xFF;
+            long end = position + GAME_HEADER_BYTES + moves;
+            if (end > size) return false;
+            if (end > windowStart + window.capacity()) {
+                map(position);
+            }
+            offset = (int) (position - windowStart);
+            position = end;
+            return true;
+        }
+
+        public int moveCount() {
+            return window.get(offset) & 0xFF;
+        }
+
+        public int rows() {
+            return window.get(offset + 1) & 0xFF;
+        }
+
+        public int columns() {
+            return window.get(offset + 2) & 0xFF;
+        }
+
+        public int result() {
+            return window.getShort(offset + 3);
+        }
+
+        public int move(int ply) {
+            return window.get(offset + GAME_HEADER_BYTES + ply) & 0xFF;
+        }
+
+        // the current game as a record (copies its moves)
+        public GameRecord record() {
+            byte[] moves = new byte[moveCount()];
+            window.get(offset + GAME_HEADER_BYTES, moves);
+            return new GameRecord(rows(), columns(), moves, result());
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package othello;
+
+import java.util.Arrays;
+
+// One finished (or abandoned) game: the board size, the moves as squares (row * columns + col,
+// one unsigned byte each, so boards up to 16x16) and the final disc difference, black minus white.
+// Passes are not stored: a move that is not legal for the side whose turn it is belongs to the
+// other side. Do not modify 'moves'.
+public record GameRecord(int rows, int columns, byte[] moves, int result) {
+    public static final int MAX_SIZE = 16;
+
+    public GameRecord {
+        if (rows < 2 || columns < 2 || rows > MAX_SIZE || columns > MAX_SIZE) {
+            throw new IllegalArgumentException("board size " + rows + "x" + columns + " does not fit a game record");
+        }
+        // the four start discs are not moves, so a count always fits in a byte
+        if (moves.length > rows * columns - 4) {
+            throw new IllegalArgumentException("more moves than empty squares");
+        }
+    }
+
+    // a position reached by replay: the board and the state of the side to move
+    public record Position(Board board, GameState state) {
+    }
+
+    public static GameRecord of(int rows, int columns, int[] squares, int count, int result) {
+        byte[] moves = new byte[count];
+        for (int i = 0; i < count; i++) {
+            moves[i] = (byte) squares[i];
+        }
+        return new GameRecord(rows, columns, moves, result);
+    }
+
+    public int moveCount() {
+        return moves.length;
+    }
+
+    public int move(int ply) {
+        return moves[ply] & 0xFF;
+    }
+
+    // start position of a rows x columns game, on the fastest board class for that size
+    public static Board startPosition(int rows, int columns) {
+        Board board = rows == BitBoard.SIZE && columns == BitBoard.SIZE ? new BitBoard()
+                : Math.max(rows, columns) <= LargeBitBoard.MAX_SIZE ? new LargeBitBoard(rows, columns)
+                : new Board(rows, columns);
+        board.setPiece(rows / 2 - 1, columns / 2 - 1, Piece.WHITE);
+        board.setPiece(rows / 2, columns / 2, Piece.WHITE);
+        board.setPiece(rows / 2, columns / 2 - 1, Piece.BLACK);
+        board.setPiece(rows / 2 - 1, columns / 2, Piece.BLACK);
+        return board;
+    }
+
+    // position after the first 'plies' moves (0 = start, moveCount() = end of the game)
+    public Position replay(int plies) {
+        Board board = startPosition(rows, columns);
+        Piece toMove = play(board, moves, plies, false);
+        return new Position(board, GameState.of(board, toMove));
+    }
+
+    // plays the first 'plies' moves on board and returns whose turn it is by alternation.
+    // 'strict' also checks that a pass only happens when the side to move has no legal move.
+    private static Piece play(Board board, byte[] moves, int plies, boolean strict) {
+        Piece toMove = Piece.BLACK;
+        for (int ply = 0; ply < plies; ply++) {
+            int square = moves[ply] & 0xFF;
+            if (!board.makeMove(square, toMove)) {
+                if (strict && board.countMoves(toMove) > 0) {
+                    throw new IllegalArgumentException("illegal move " + squareName(square, board.getColumns())
+                            + " at ply " + (ply + 1));
+                }
+                toMove = toMove.flip();
+                if (!board.makeMove(square, toMove)) {
+                    throw new IllegalArgumentException("illegal move " + squareName(square, board.getColumns())
+                            + " at ply " + (ply + 1));
+                }
+            }
+            toMove = toMove.flip();
+        }
+        return toMove;
+    }
+
+    // Text transcript in the usual notation: column letter then row number for every move,
+    // without separators, e.g. "f5d6c3d3c4" (rows above 9 take two digits: "a10").
+    public String toTranscript() {
+        StringBuilder text = new StringBuilder(moves.length * 2);
+        for (byte move : moves) {
+            text.append(squareName(move & 0xFF, columns));
+        }
+        return text.toString();
+    }
+
+    // Parses and checks a transcript; separators, case and explicit passes ("pa", "--") are
+    // ignored. The result is computed by playing the game out.
+    public static GameRecord parse(String transcript, int rows, int columns) {
+        byte[] moves = new byte[rows * columns - 4];
+        int count = 0;
+        String text = transcript.toLowerCase();
+        int digits = rows > 9 ? 2 : 1;
+        int i = 0;
+        while (i < text.length()) {
+            char ch = text.charAt(i);
+            if (text.startsWith("pa", i) || text.startsWith("--", i)) {
+                i += 2;
+            } else if (ch >= 'a' && ch < 'a' + columns) {
+                int j = i + 1;
+                while (j < text.length() && j <= i + digits && Character.isDigit(text.charAt(j))) j++;
+                if (j == i + 1) throw new IllegalArgumentException("missing row after '" + ch + "'");
+                int row = Integer.parseInt(text.substring(i + 1, j)) - 1;
+                if (row < 0 || row >= rows) {
+                    throw new IllegalArgumentException("no square " + text.substring(i, j));
+                }
+                if (count == moves.length) throw new IllegalArgumentException("more moves than empty squares");
+                moves[count++] = (byte) (row * columns + (ch - 'a'));
+                i = j;
+            } else if (Character.isWhitespace(ch) || ch == ',' || ch == ';' || ch == '.') {
+                i++;
+            } else {
+                throw new IllegalArgumentException("unexpected '" + ch + "' in transcript");
+            }
+        }
+        moves = Arrays.copyOf(moves, count);
+        Board board = startPosition(rows, columns);
+        play(board, moves, count, true);
+        return new GameRecord(rows, columns, moves, board.countPieces(Piece.BLACK) - board.countPieces(Piece.WHITE));
+    }
+
+    public static String squareName(int square, int columns) {
+        return (char) ('a' + square % columns) + Integer.toString(square / columns + 1);
+    }
+}
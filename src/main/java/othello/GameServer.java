@@ -0,0 +1,275 @@
+package othello;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Hosts many human-vs-AI games at once. A session holds no board and no engine while it waits
+// for its human: only the moves so far (one byte each, as in GameRecord), the state of the
+// human's turn and the AI's clock. When the human moves, the position is replayed on one of a
+// fixed number of workers, which searches with its own engines (as in BatchEvaluator), so memory
+// does not grow with the number of searches in flight.
+// Scheduling: a session has at most one request queued or running, and workers take requests
+// first come, first served, so every waiting session gets a worker before any session gets a
+// second one. Each AI move is a timed search whose time comes from the session's clock and is
+// capped by the maximum move time, which shrinks while more requests wait than there are
+// workers; no single deep search can hold a worker for long.
+public class GameServer implements AutoCloseable {
+
+    // One game. Only the server changes it; its methods may be called from any thread.
+    public static final class Session {
+        private final long id;
+        private final Piece human;
+        private final byte rows;
+        private final byte columns;
+        private final byte[] moves; // as GameRecord.moves, passes not stored
+        private volatile int moveCount;
+        private volatile GameState state;
+        private volatile long clockNanos; // AI think time left for the rest of the game
+        private final AtomicBoolean busy = new AtomicBoolean();
+
+        private Session(long id, int size, Piece human, long clockNanos) {
+            this.id = id;
+            this.human = human;
+            this.rows = (byte) size;
+            this.columns = (byte) size;
+            this.moves = new byte[size * size - 4];
+            this.clockNanos = clockNanos;
+            this.state = GameState.of(GameRecord.startPosition(size, size), Piece.BLACK);
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public Piece getHuman() {
+            return human;
+        }
+
+        public int getSize() {
+            return rows;
+        }
+
+        // the position after the last reply; toMove is the human unless the game is over or the
+        // AI has the first move
+        public GameState getState() {
+            return state;
+        }
+
+        public long getClockNanos() {
+            return clockNanos;
+        }
+
+        public boolean isBusy() {
+            return busy.get();
+        }
+
+        // the game so far, result from the current discs
+        public GameRecord record() {
+            GameState current = state;
+            return new GameRecord(rows, columns, Arrays.copyOf(moves, moveCount),
+                    current.blackCount() - current.whiteCount());
+        }
+    }
+
+    // The AI's answer to one human move: the moves it played (none when it had to pass, several
+    // when the human had to pass in between), the state of the human's next turn (or the end of
+    // the game), the time the request waited for a worker and the time the searches took.
+    public record Reply(int[] aiMoves, GameState state, long waitNanos, long searchNanos) {
+    }
+
+    private final int workers;
+    private final ExecutorService executor;
+    private final ThreadLocal<AIPlayer[]> engines = ThreadLocal.withInitial(this::createEngines);
+    private final Map<Long, Session> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong aiMoves = new AtomicLong();
+
+    private long clockMs = 60_000;
+    private long maxMoveMs = 1000;
+    private PatternEvaluator patternEvaluator;
+    private int transpositionTableMb = 16;
+
+    public GameServer(int workers) {
+        this.workers = workers;
+        this.executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "game-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // a new game on a size x size board (4 to 16, even); when the human plays white the AI moves
+    // first, after play(session, -1)
+    public Session open(int size, Piece human) {
+        if (size < 4 || size > GameRecord.MAX_SIZE || size % 2 != 0) {
+            throw new IllegalArgumentException("board size must be even, 4 to " + GameRecord.MAX_SIZE);
+        }
+        Session session = new Session(nextId.incrementAndGet(), size, human, clockMs * 1_000_000);
+        sessions.put(session.id, session);
+        return session;
+    }
+
+    public Session getSession(long id) {
+        return sessions.get(id);
+    }
+
+    // Ends a session. A reply still being computed for it completes as usual.
+    public void close(Session session) {
+        sessions.remove(session.id);
+    }
+
+    // Plays the human's move (row * columns + col) and lets the AI answer; -1 when it is the AI's
+    // turn (only at the start of a game in which the human plays white). The move is checked here:
+    // IllegalArgumentException if it is not legal now, IllegalStateException if the session is
+    // closed or still busy with its previous move.
+    public CompletableFuture<Reply> play(Session session, int square) {
+        if (!sessions.containsKey(session.id)) throw new IllegalStateException("session is closed");
+        if (!session.busy.compareAndSet(false, true)) throw new IllegalStateException("session is busy");
+        // checked after taking the session, against the state its last reply left
+        GameState current = session.state;
+        if (current.over() || (square < 0 ? current.toMove() == session.human
+                : current.toMove() != session.human || !current.isLegal(square))) {
+            session.busy.set(false);
+            throw new IllegalArgumentException(current.over() ? "the game is over"
+                    : "not a legal move now: " + square);
+        }
+
+        long submitted = System.nanoTime();
+        queued.incrementAndGet();
+        return CompletableFuture.supplyAsync(() -> {
+            queued.decrementAndGet();
+            try {
+                return reply(session, square, System.nanoTime() - submitted);
+            } finally {
+                session.busy.set(false);
+            }
+        }, executor);
+    }
+
+    // runs on a worker with that worker's engines
+    private Reply reply(Session session, int square, long waitNanos) {
+        Board board = GameRecord.startPosition(session.rows, session.columns);
+        Piece turn = replay(board, session.moves, session.moveCount);
+        if (square >= 0) {
+            board.makeMove(square, session.human);
+            session.moves[session.moveCount++] = (byte) square;
+            turn = session.human.flip();
+        }
+
+        Piece ai = session.human.flip();
+        AIPlayer engine = engines.get()[ai == Piece.BLACK ? 0 : 1];
+        GameState state = GameState.of(board, turn);
+        int[] played = new int[0];
+        long searchNanos = 0;
+        while (!state.over() && state.toMove() == ai) {
+            engine.setThinkTime(moveTime(session, board));
+            long start = System.nanoTime();
+            SearchStats stats = engine.calculateBestMoveWithStats(board);
+            long elapsed = System.nanoTime() - start;
+            searchNanos += elapsed;
+            session.clockNanos = Math.max(0, session.clockNanos - elapsed);
+
+            // a timed search always finishes depth 1, so there is a move
+            int move = stats.move()[0] * board.getColumns() + stats.move()[1];
+            board.makeMove(move, ai);
+            session.moves[session.moveCount++] = (byte) move;
+            played = Arrays.copyOf(played, played.length + 1);
+            played[played.length - 1] = move;
+            aiMoves.incrementAndGet();
+            state = GameState.of(board, session.human);
+        }
+        session.state = state;
+        return new Reply(played, state, waitNanos, searchNanos);
+    }
+
+    // The share of the clock for one of the AI's remaining moves, at most the maximum move time.
+    // While requests wait for a worker that maximum shrinks in proportion, so a queue of any
+    // length drains in about the same time.
+    private long moveTime(Session session, Board board) {
+        long aiMovesLeft = Math.max(1, (board.countPieces(null) + 1) / 2);
+        long share = session.clockNanos / aiMovesLeft / 1_000_000;
+        int waiting = queued.get();
+        long cap = waiting > workers ? maxMoveMs * workers / waiting : maxMoveMs;
+        return Math.max(1, Math.min(share, cap));
+    }
+
+    // plays the recorded moves on board, passes included, and returns whose turn it is
+    private static Piece replay(Board board, byte[] moves, int count) {
+        Piece toMove = Piece.BLACK;
+        for (int i = 0; i < count; i++) {
+            int square = moves[i] & 0xFF;
+            if (!board.makeMove(square, toMove)) {
+                toMove = toMove.flip();
+                board.makeMove(square, toMove);
+            }
+            toMove = toMove.flip();
+        }
+        return toMove;
+    }
+
+    private AIPlayer[] createEngines() {
+        AIPlayer[] result = new AIPlayer[2];
+        for (Piece piece : Piece.values()) {
+            AIPlayer engine = new AIPlayer("Server", piece, 6, AIPlayer.Algorithm.PVS);
+            engine.setThreads(1);
+            engine.setTranspositionTableSize(transpositionTableMb);
+            engine.setPatternEvaluator(patternEvaluator);
+            engine.setEndgameSolver(AIPlayer.DEFAULT_ENDGAME_EMPTIES, false);
+            result[piece == Piece.BLACK ? 0 : 1] = engine;
+        }
+        return result;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    // requests waiting for a worker
+    public int getQueued() {
+        return queued.get();
+    }
+
+    // AI moves played since the server started
+    public long getAIMoves() {
+        return aiMoves.get();
+    }
+
+    // AI think time per game in ms (default 60 s), for sessions opened after this call
+    public void setClock(long clockMs) {
+        this.clockMs = clockMs;
+    }
+
+    // longest search of one AI move in ms (default 1000)
+    public void setMaxMoveTime(long maxMoveMs) {
+        this.maxMoveMs = Math.max(1, maxMoveMs);
+    }
+
+    // Set the engine options before the first game: each worker creates its engines with them
+    // when it first runs. patternEvaluator is for 8x8 games; null for square weights.
+    public void setPatternEvaluator(PatternEvaluator patternEvaluator) {
+        this.patternEvaluator = patternEvaluator;
+    }
+
+    // per engine, so a server uses 2 * workers tables of this size
+    public void setTranspositionTableSize(int sizeMb) {
+        this.transpositionTableMb = sizeMb;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        sessions.clear();
+    }
+}
@@ -0,0 +1,43 @@
+package othello;
+
+// Snapshot of a position between moves, computed once from the board: who moves, their legal
+// moves (squares row * columns + col), the disc counts and whether the game is over. When the
+// player whose turn it was has no move the turn passes here, so toMove is always the player who
+// actually moves next (passed tells that the other one had to pass). Do not modify 'moves'.
+public record GameState(Piece toMove, int[] moves, boolean passed, boolean over, int blackCount,
+                        int whiteCount) {
+
+    // 'turn' is the player whose turn it is by alternation (the opponent of the last mover)
+    public static GameState of(Board board, Piece turn) {
+        int[] buffer = new int[board.getRows() * board.getColumns()];
+        Piece toMove = turn;
+        int count = board.generateMoves(turn, buffer);
+        boolean passed = false;
+        if (count == 0) {
+            toMove = turn.flip();
+            count = board.generateMoves(toMove, buffer);
+            passed = count > 0;
+            if (!passed) toMove = turn;
+        }
+        int[] moves = new int[count];
+        System.arraycopy(buffer, 0, moves, 0, count);
+        return new GameState(toMove, moves, passed, count == 0,
+                board.countPieces(Piece.BLACK), board.countPieces(Piece.WHITE));
+    }
+
+    public boolean isLegal(int square) {
+        for (int move : moves) {
+            if (move == square) return true;
+        }
+        return false;
+    }
+
+    public int count(Piece piece) {
+        return piece == Piece.BLACK ? blackCount : whiteCount;
+    }
+
+    // the player with more discs once the game is over; null for a draw
+    public Piece winner() {
+        return blackCount > whiteCount ? Piece.BLACK : whiteCount > blackCount ? Piece.WHITE : null;
+    }
+}
@@ -0,0 +1,402 @@
+package othello;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Board of any size up to 16x16 stored as two multi-word bitsets, bit index = row * columns + col
+// (the same square numbering as Board). Legal moves are found for all squares at once by shifting
+// whole bitsets; flips walk precomputed rays from the square played. Shifts, masks and rays
+// depend only on the size and are shared by all boards of that size.
+public class LargeBitBoard extends Board {
+    public static final int MAX_SIZE = 16;
+
+    // E, W, S, N, SE, SW, NE, NW; the row step is filled in per size
+    private static final int[] DIR_ROW = {0, 0, 1, -1, 1, 1, -1, -1};
+    private static final int[] DIR_COL = {1, -1, 0, 0, 1, -1, 1, -1};
+
+    private static final ConcurrentHashMap<Integer, Geometry> GEOMETRIES = new ConcurrentHashMap<>();
+
+    private final Geometry geometry;
+    private final long[] black;
+    private final long[] white;
+    private long hash;
+    private int[] squareWeights;
+    private int weightedScore; // black minus white, see Board.setSquareWeights
+
+    // scratch bitsets for move generation
+    private final long[] moveMask;
+    private final long[] run;
+    private final long[] step;
+
+    // undo stack for makeMove/unmakeMove, allocated on first use
+    private int[] undoSquares;
+    private int[] undoFlipStart;
+    private long[] undoHashes;
+    private int[] undoScores;
+    private int[] flipStack;
+    private int undoTop;
+    private int flipTop;
+
+    public LargeBitBoard(int rows, int columns) {
+        super(rows, columns, false);
+        if (rows < 1 || columns < 1 || rows > MAX_SIZE || columns > MAX_SIZE) {
+            throw new IllegalArgumentException("board size must be 1..16 in each direction");
+        }
+        this.geometry = GEOMETRIES.computeIfAbsent(rows * 256 + columns, key -> new Geometry(rows, columns));
+        int words = geometry.words;
+        this.black = new long[words];
+        this.white = new long[words];
+        this.moveMask = new long[words];
+        this.run = new long[words];
+        this.step = new long[words];
+    }
+
+    // copy any board of up to 16x16 into a large bitboard
+    public static LargeBitBoard of(Board board) {
+        if (board instanceof LargeBitBoard large) {
+            return large.cloneBoard();
+        }
+        LargeBitBoard result = new LargeBitBoard(board.getRows(), board.getColumns());
+        for (int r = 0; r < board.getRows(); r++) {
+            for (int c = 0; c < board.getColumns(); c++) {
+                result.setPiece(r, c, board.getPiece(r, c));
+            }
+        }
+        return result;
+    }
+
+    // shapes, masks and rays of one board size
+    private static final class Geometry {
+        final int rows;
+        final int columns;
+        final int squares;
+        final int words;
+        final int[] shifts = new int[8];
+        // squares a shift in each direction may land on: on the board and not wrapped to another row
+        final long[][] shiftMasks = new long[8][];
+        final long[] valid;
+        // rays[dir][square]: the squares from 'square' to the edge in that direction, nearest first
+        final int[][][] rays = new int[8][][];
+
+        Geometry(int rows, int columns) {
+            this.rows = rows;
+            this.columns = columns;
+            this.squares = rows * columns;
+            this.words = (squares + 63) >>> 6;
+            this.valid = new long[words];
+            for (int sq = 0; sq < squares; sq++) {
+                valid[sq >>> 6] |= 1L << sq;
+            }
+            for (int d = 0; d < 8; d++) {
+                shifts[d] = DIR_ROW[d] * columns + DIR_COL[d];
+                long[] mask = valid.clone();
+                for (int r = 0; r < rows; r++) {
+                    // moving east a disc cannot arrive in column 0, moving west not in the last column
+                    int excluded = DIR_COL[d] > 0 ? 0 : DIR_COL[d] < 0 ? columns - 1 : -1;
+                    if (excluded >= 0) {
+                        int sq = r * columns + excluded;
+                        mask[sq >>> 6] &= ~(1L << sq);
+                    }
+                }
+                shiftMasks[d] = mask;
+
+                rays[d] = new int[squares][];
+                for (int sq = 0; sq < squares; sq++) {
+                    int[] ray = new int[Math.max(rows, columns)];
+                    int length = 0;
+                    int r = sq / columns + DIR_ROW[d];
+                    int c = sq % columns + DIR_COL[d];
+                    while (r >= 0 && r < rows && c >= 0 && c < columns) {
+                        ray[length++] = r * columns + c;
+                        r += DIR_ROW[d];
+                        c += DIR_COL[d];
+                    }
+                    rays[d][sq] = Arrays.copyOf(ray, length);
+                }
+            }
+        }
+    }
+
+    // dst = shift of src by one square in direction d, masked; src and dst must differ
+    private void shift(long[] src, int d, long[] dst) {
+        int s = geometry.shifts[d];
+        long[] mask = geometry.shiftMasks[d];
+        int words = geometry.words;
+        if (s > 0) {
+            for (int i = words - 1; i >= 0; i--) {
+                long carry = i > 0 ? src[i - 1] >>> (64 - s) : 0;
+                dst[i] = ((src[i] << s) | carry) & mask[i];
+            }
+        } else {
+            s = -s;
+            for (int i = 0; i < words; i++) {
+                long carry = i + 1 < words ? src[i + 1] << (64 - s) : 0;
+                dst[i] = ((src[i] >>> s) | carry) & mask[i];
+            }
+        }
+    }
+
+    // legal moves of own against opp into moveMask; returns their number
+    private int legalMoves(long[] own, long[] opp) {
+        int words = geometry.words;
+        Arrays.fill(moveMask, 0);
+        for (int d = 0; d < 8; d++) {
+            // runs of opponent discs starting next to one of ours...
+            shift(own, d, run);
+            boolean any = false;
+            for (int i = 0; i < words; i++) {
+                run[i] &= opp[i];
+                any |= run[i] != 0;
+            }
+            // grow the runs one square at a time until they stop growing
+            while (any) {
+                shift(run, d, step);
+                any = false;
+                for (int i = 0; i < words; i++) {
+                    long next = step[i] & opp[i] & ~run[i];
+                    any |= next != 0;
+                    run[i] |= next;
+                }
+            }
+            // ...ending on an empty square
+            shift(run, d, step);
+            for (int i = 0; i < words; i++) {
+                moveMask[i] |= step[i] & ~(own[i] | opp[i]);
+            }
+        }
+        int count = 0;
+        for (int i = 0; i < words; i++) {
+            count += Long.bitCount(moveMask[i]);
+        }
+        return count;
+    }
+
+    private static boolean has(long[] bits, int square) {
+        return (bits[square >>> 6] & (1L << square)) != 0;
+    }
+
+    private static void set(long[] bits, int square) {
+        bits[square >>> 6] |= 1L << square;
+    }
+
+    private static void clear(long[] bits, int square) {
+        bits[square >>> 6] &= ~(1L << square);
+    }
+
+    private long[] bits(Piece piece) {
+        return piece == Piece.BLACK ? black : white;
+    }
+
+    // true if playing 'square' flips at least one disc of opp
+    private boolean captures(int square, long[] own, long[] opp) {
+        for (int d = 0; d < 8; d++) {
+            int[] ray = geometry.rays[d][square];
+            int k = 0;
+            while (k < ray.length && has(opp, ray[k])) k++;
+            if (k > 0 && k < ray.length && has(own, ray[k])) return true;
+        }
+        return false;
+    }
+
+    // flips the captured discs, pushing them on the flip stack if record is set; returns false if
+    // there are none
+    private boolean play(int square, Piece piece, boolean record) {
+        long[] own = bits(piece);
+        long[] opp = bits(piece.flip());
+        if (has(own, square) || has(opp, square)) return false;
+        int flipped = 0;
+        int sign = piece == Piece.BLACK ? 1 : -1;
+        for (int d = 0; d < 8; d++) {
+            int[] ray = geometry.rays[d][square];
+            int k = 0;
+            while (k < ray.length && has(opp, ray[k])) k++;
+            if (k == 0 || k == ray.length || !has(own, ray[k])) continue;
+            for (int i = 0; i < k; i++) {
+                int sq = ray[i];
+                set(own, sq);
+                clear(opp, sq);
+                if (record) flipStack[flipTop++] = sq;
+                flipped++;
+                hash ^= Zobrist.flipKey(sq);
+                if (squareWeights != null) weightedScore += 2 * sign * squareWeights[sq];
+            }
+        }
+        if (flipped == 0) return false;
+        set(own, square);
+        hash ^= Zobrist.pieceKey(piece, square);
+        if (squareWeights != null) weightedScore += sign * squareWeights[square];
+        return true;
+    }
+
+    private void ensureUndo() {
+        if (undoSquares == null) {
+            int cells = geometry.squares;
+            undoSquares = new int[cells];
+            undoFlipStart = new int[cells];
+            undoHashes = new long[cells];
+            undoScores = new int[cells];
+            // a move flips a few discs on average; the flip stack grows when needed
+            flipStack = new int[cells * 4];
+        }
+        // a move flips at most 8 * (max(rows, columns) - 2) discs
+        if (flipStack.length - flipTop < 8 * Math.max(geometry.rows, geometry.columns)) {
+            flipStack = Arrays.copyOf(flipStack, flipStack.length * 2);
+        }
+    }
+
+    @Override
+    public void placePiece(int rowIndex, int colIndex, Piece piece) {
+        if (!isInside(rowIndex, colIndex)) return;
+        // placePiece is not undoable: nothing goes on the undo stack
+        play(rowIndex * geometry.columns + colIndex, piece, false);
+    }
+
+    @Override
+    public boolean makeMove(int square, Piece piece) {
+        ensureUndo();
+        long hashBefore = hash;
+        int scoreBefore = weightedScore;
+        int start = flipTop;
+        if (!play(square, piece, true)) return false;
+        undoSquares[undoTop] = square;
+        undoFlipStart[undoTop] = start;
+        undoHashes[undoTop] = hashBefore;
+        undoScores[undoTop] = scoreBefore;
+        undoTop++;
+        return true;
+    }
+
+    @Override
+    public void unmakeMove() {
+        undoTop--;
+        int square = undoSquares[undoTop];
+        long[] own = has(black, square) ? black : white;
+        long[] opp = own == black ? white : black;
+        clear(own, square);
+        int start = undoFlipStart[undoTop];
+        while (flipTop > start) {
+            int sq = flipStack[--flipTop];
+            clear(own, sq);
+            set(opp, sq);
+        }
+        hash = undoHashes[undoTop];
+        weightedScore = undoScores[undoTop];
+    }
+
+    @Override
+    public boolean canPlacePiece(int rowIndex, int colIndex, Piece piece) {
+        if (!isInside(rowIndex, colIndex)) return false;
+        int square = rowIndex * geometry.columns + colIndex;
+        if (has(black, square) || has(white, square)) return false;
+        return captures(square, bits(piece), bits(piece.flip()));
+    }
+
+    @Override
+    public int generateMoves(Piece piece, int[] moves) {
+        legalMoves(bits(piece), bits(piece.flip()));
+        int count = 0;
+        for (int i = 0; i < geometry.words; i++) {
+            for (long word = moveMask[i]; word != 0; word &= word - 1) {
+                moves[count++] = (i << 6) + Long.numberOfTrailingZeros(word);
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public int countMoves(Piece piece) {
+        return legalMoves(bits(piece), bits(piece.flip()));
+    }
+
+    @Override
+    public Piece getPiece(int row, int col) {
+        if (!isInside(row, col)) return null;
+        int square = row * geometry.columns + col;
+        if (has(black, square)) return Piece.BLACK;
+        if (has(white, square)) return Piece.WHITE;
+        return null;
+    }
+
+    @Override
+    public void setPiece(int row, int col, Piece piece) {
+        if (!isInside(row, col)) return;
+        int square = row * geometry.columns + col;
+        Piece old = getPiece(row, col);
+        hash ^= Zobrist.pieceKey(old, square) ^ Zobrist.pieceKey(piece, square);
+        if (squareWeights != null) {
+            weightedScore += (sign(piece) - sign(old)) * squareWeights[square];
+        }
+        clear(black, square);
+        clear(white, square);
+        if (piece != null) set(bits(piece), square);
+    }
+
+    @Override
+    public void setSquareWeights(int[] weights) {
+        this.squareWeights = weights;
+        this.weightedScore = 0;
+        if (weights == null) return;
+        for (int sq = 0; sq < geometry.squares; sq++) {
+            if (has(black, sq)) weightedScore += weights[sq];
+            else if (has(white, sq)) weightedScore -= weights[sq];
+        }
+    }
+
+    @Override
+    public int[] getSquareWeights() {
+        return squareWeights;
+    }
+
+    @Override
+    public int getWeightedScore(Piece piece) {
+        return piece == Piece.BLACK ? weightedScore : -weightedScore;
+    }
+
+    @Override
+    public boolean isOver() {
+        return legalMoves(black, white) == 0 && legalMoves(white, black) == 0;
+    }
+
+    @Override
+    public LargeBitBoard cloneBoard() {
+        LargeBitBoard copy = new LargeBitBoard(geometry.rows, geometry.columns);
+        System.arraycopy(black, 0, copy.black, 0, black.length);
+        System.arraycopy(white, 0, copy.white, 0, white.length);
+        copy.hash = hash;
+        copy.squareWeights = squareWeights;
+        copy.weightedScore = weightedScore;
+        return copy;
+    }
+
+    @Override
+    public long getHash() {
+        return hash;
+    }
+
+    @Override
+    public boolean isFull() {
+        for (int i = 0; i < geometry.words; i++) {
+            if ((black[i] | white[i]) != geometry.valid[i]) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int countPieces(Piece piece) {
+        int count = 0;
+        for (int i = 0; i < geometry.words; i++) {
+            count += piece == null ? Long.bitCount(geometry.valid[i] & ~(black[i] | white[i]))
+                    : Long.bitCount(piece == Piece.BLACK ? black[i] : white[i]);
+        }
+        return count;
+    }
+
+    private boolean isInside(int row, int col) {
+        return row >= 0 && row < geometry.rows && col >= 0 && col < geometry.columns;
+    }
+
+    private static int sign(Piece piece) {
+        if (piece == null) return 0;
+        return piece == Piece.BLACK ? 1 : -1;
+    }
+}
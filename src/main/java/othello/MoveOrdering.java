@@ -0,0 +1,87 @@
+package othello;
+
+// Sorts a node's move list so the likely best move comes first:
+// hash/PV move, then the two killer moves of this ply, then history score, then square weight.
+// One instance per search thread; all tables are preallocated.
+class MoveOrdering {
+    private static final int HASH_MOVE_SCORE = 1 << 30;
+    private static final int KILLER_1_SCORE = 1 << 29;
+    private static final int KILLER_2_SCORE = 1 << 28;
+    private static final int HISTORY_LIMIT = 1 << 20;
+
+    private int[] squareWeights = new int[0];
+    private int[][] scores = new int[0][0];
+    private int[][] killers = new int[0][2];
+    private int[][] history = new int[2][Zobrist.MAX_SQUARES];
+
+    // called before each search with the board's square weights (row * columns + col);
+    // keeps a decayed history from earlier searches
+    void newSearch(int maxPly, int[] squareWeights) {
+        this.squareWeights = squareWeights;
+        int squares = squareWeights.length;
+        if (scores.length < maxPly + 1 || scores[0].length < squares) {
+            scores = new int[maxPly + 1][squares];
+            killers = new int[maxPly + 1][2];
+        }
+        if (history[0].length < squares) {
+            // only boards larger than 16x16 need more; their history starts over
+            history = new int[2][squares];
+        }
+        for (int[] k : killers) {
+            k[0] = -1;
+            k[1] = -1;
+        }
+        for (int[] h : history) {
+            for (int sq = 0; sq < h.length; sq++) {
+                h[sq] >>= 1;
+            }
+        }
+    }
+
+    void order(int[] moves, int count, int hashMove, Piece toMove, int ply) {
+        int[] score = scores[ply];
+        int[] killer = killers[ply];
+        int[] hist = history[toMove.ordinal()];
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            if (move == hashMove) {
+                score[i] = HASH_MOVE_SCORE;
+            } else if (move == killer[0]) {
+                score[i] = KILLER_1_SCORE;
+            } else if (move == killer[1]) {
+                score[i] = KILLER_2_SCORE;
+            } else {
+                score[i] = (hist[move] << 6) + squareWeights[move] + 32;
+            }
+        }
+        // insertion sort, highest score first; move lists are short
+        for (int i = 1; i < count; i++) {
+            int move = moves[i];
+            int s = score[i];
+            int j = i - 1;
+            while (j >= 0 && score[j] < s) {
+                moves[j + 1] = moves[j];
+                score[j + 1] = score[j];
+                j--;
+            }
+            moves[j + 1] = move;
+            score[j + 1] = s;
+        }
+    }
+
+    // move caused a beta cutoff at this ply
+    void recordCutoff(int move, Piece toMove, int depth, int ply) {
+        int[] killer = killers[ply];
+        if (killer[0] != move) {
+            killer[1] = killer[0];
+            killer[0] = move;
+        }
+        int[] hist = history[toMove.ordinal()];
+        hist[move] += depth * depth;
+        if (hist[move] > HISTORY_LIMIT) {
+            for (int sq = 0; sq < hist.length; sq++) {
+                hist[sq] >>= 1;
+            }
+        }
+    }
+}
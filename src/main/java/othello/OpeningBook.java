@@ -0,0 +1,144 @@
+package othello;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// Read-only opening book, memory-mapped so opening it costs the same for any file size.
+// File layout (little endian):
+//   header, 24 bytes: magic "OBK1", rows (short), columns (short), Zobrist check key (long),
+//                     entry count (int), reserved (int)
+//   entries, 16 bytes each, sorted by key then best value first:
+//                     key (long) = board hash ^ side-to-move key, value (int), move square (unsigned byte),
+//                     search depth (unsigned byte), count (unsigned short, e.g. games seen; 0 if unknown)
+// A position has one entry per book move. Values are from the side to move's point of view.
+public class OpeningBook {
+    private static final int MAGIC = 0x314B424F; // "OBK1"
+    private static final int HEADER_BYTES = 24;
+    private static final int ENTRY_BYTES = 16;
+
+    public record Move(int move, int value, int depth, int count) {
+    }
+
+    public record Entry(long key, Move move) {
+    }
+
+    private final MappedByteBuffer buffer;
+    private final int rows;
+    private final int columns;
+    private final int count;
+
+    private OpeningBook(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("not an opening book");
+        }
+        this.rows = buffer.getShort(4);
+        this.columns = buffer.getShort(6);
+        // the keys only mean something with the same Zobrist table
+        if (buffer.getLong(8) != zobristCheck()) {
+            throw new IllegalArgumentException("opening book was built with other hash keys");
+        }
+        this.count = buffer.getInt(16);
+        if ((long) HEADER_BYTES + (long) count * ENTRY_BYTES > buffer.capacity()) {
+            throw new IllegalArgumentException("opening book is truncated");
+        }
+    }
+
+    public static OpeningBook open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new OpeningBook(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public static long key(Board board, Piece toMove) {
+        return board.getHash() ^ Zobrist.sideKey(toMove);
+    }
+
+    // best book move for toMove that is legal on board, or null
+    public Move probe(Board board, Piece toMove) {
+        if (board.getRows() != rows || board.getColumns() != columns) return null;
+        long key = key(board, toMove);
+        for (int i = find(key); i < count && keyAt(i) == key; i++) {
+            int move = moveAt(i);
+            if (board.canPlacePiece(move / columns, move % columns, toMove)) {
+                return moveEntry(i);
+            }
+        }
+        return null;
+    }
+
+    // all book moves stored for this position, best first (moves are row * columns + col)
+    public List<Move> moves(Board board, Piece toMove) {
+        List<Move> result = new ArrayList<>();
+        if (board.getRows() != rows || board.getColumns() != columns) return result;
+        long key = key(board, toMove);
+        for (int i = find(key); i < count && keyAt(i) == key; i++) {
+            result.add(moveEntry(i));
+        }
+        return result;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    // first entry index with a key >= key
+    private int find(long key) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keyAt(mid) < key) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    private long keyAt(int index) {
+        return buffer.getLong(HEADER_BYTES + index * ENTRY_BYTES);
+    }
+
+    private Move moveEntry(int index) {
+        int offset = HEADER_BYTES + index * ENTRY_BYTES;
+        return new Move(moveAt(index), buffer.getInt(offset + 8), buffer.get(offset + 13) & 0xFF,
+                buffer.getShort(offset + 14) & 0xFFFF);
+    }
+
+    private int moveAt(int index) {
+        return buffer.get(HEADER_BYTES + index * ENTRY_BYTES + 12) & 0xFF;
+    }
+
+    public static void write(Path file, int rows, int columns, List<Entry> entries) throws IOException {
+        List<Entry> sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparingLong(Entry::key)
+                .thenComparingInt(e -> -e.move().value())
+                .thenComparingInt(e -> e.move().move()));
+
+        ByteBuffer out = ByteBuffer.allocate(HEADER_BYTES + sorted.size() * ENTRY_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC).putShort((short) rows).putShort((short) columns)
+                .putLong(zobristCheck()).putInt(sorted.size()).putInt(0);
+        for (Entry entry : sorted) {
+            Move move = entry.move();
+            out.putLong(entry.key())
+                    .putInt(move.value())
+                    .put((byte) move.move())
+                    .put((byte) Math.min(move.depth(), 255))
+                    .putShort((short) Math.min(move.count(), 0xFFFF));
+        }
+        Files.write(file, out.array());
+    }
+
+    private static long zobristCheck() {
+        return Zobrist.pieceKey(Piece.BLACK, 0) ^ Zobrist.pieceKey(Piece.WHITE, 1) ^ Zobrist.sideKey(Piece.WHITE);
+    }
+}
@@ -0,0 +1,280 @@
+package othello;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Young Brothers Wait parallel alpha-beta on a ForkJoinPool.
+// At a split node the first (eldest) move is searched alone to get a bound; the remaining moves
+// are then searched in parallel with that bound. Nodes with less than MIN_SPLIT_DEPTH plies left
+// are searched sequentially by the worker thread's own helper AIPlayer (own buffers and move
+// ordering, shared transposition table). The root value equals the sequential alpha-beta value.
+class ParallelSearch {
+    static final int MIN_SPLIT_DEPTH = 4;
+
+    private final AIPlayer owner;
+    private final ForkJoinPool pool;
+    private final ThreadLocal<Worker> worker;
+    private final List<Worker> workers = new CopyOnWriteArrayList<>();
+
+    // state of the current root search, read by the worker threads
+    private volatile int searchId;
+    private volatile Board rootBoard;
+    private volatile int rootDepth;
+    private volatile long deadline;
+    private volatile boolean aborted;
+    private int bestValue;
+
+    ParallelSearch(AIPlayer owner, int threads) {
+        this.owner = owner;
+        this.pool = new ForkJoinPool(threads);
+        this.worker = ThreadLocal.withInitial(() -> {
+            Worker w = new Worker(new AIPlayer(owner.getName(), owner.getPiece()));
+            workers.add(w);
+            return w;
+        });
+    }
+
+    int searchRoot(Board board, int depth, int firstMove, long deadline) {
+        this.searchId++;
+        this.rootBoard = board;
+        this.rootDepth = depth;
+        this.deadline = deadline;
+        this.aborted = false;
+
+        NodeTask root = new NodeTask(null, true, board.cloneBoard(), depth, Integer.MIN_VALUE, Integer.MAX_VALUE, 0, firstMove);
+        pool.invoke(root);
+        bestValue = root.value;
+        return root.bestMove;
+    }
+
+    boolean isAborted() {
+        return aborted;
+    }
+
+    // ends the pool's threads; the search cannot be used afterwards
+    void close() {
+        pool.shutdown();
+    }
+
+    int getBestValue() {
+        return bestValue;
+    }
+
+    long getNodes() {
+        long total = 0;
+        for (Worker w : workers) {
+            if (w.searchId == searchId) total += w.helper.getNodeCount();
+        }
+        return total;
+    }
+
+    long getEvaluations() {
+        long total = 0;
+        for (Worker w : workers) {
+            if (w.searchId == searchId) total += w.helper.getEvaluationCount();
+        }
+        return total;
+    }
+
+    long getCutoffs() {
+        long total = 0;
+        for (Worker w : workers) {
+            if (w.searchId == searchId) total += w.helper.getCutoffs();
+        }
+        return total;
+    }
+
+    long getFirstMoveCutoffs() {
+        long total = 0;
+        for (Worker w : workers) {
+            if (w.searchId == searchId) total += w.helper.getFirstMoveCutoffs();
+        }
+        return total;
+    }
+
+    // a pool thread's helper player and the root search it was last reset for
+    private static final class Worker {
+        final AIPlayer helper;
+        int searchId = -1;
+
+        Worker(AIPlayer helper) {
+            this.helper = helper;
+        }
+    }
+
+    private final class NodeTask extends RecursiveAction {
+        private final boolean maxmin;
+        private final Board board;
+        private final int depth;
+        private int alpha;
+        private int beta;
+        private final int ply;
+        private final int hintMove;
+        private final NodeTask parent;
+
+        // set when a young brother refuted the parent; brothers not started yet are skipped
+        private volatile boolean cutoff;
+        // window narrowed by the brothers finished so far; read by brothers when they start
+        private int liveAlpha;
+        private int liveBeta;
+
+        int value;
+        int bestMove = -1;
+        boolean skipped;
+
+        NodeTask(NodeTask parent, boolean maxmin, Board board, int depth, int alpha, int beta, int ply, int hintMove) {
+            this.parent = parent;
+            this.maxmin = maxmin;
+            this.board = board;
+            this.depth = depth;
+            this.alpha = alpha;
+            this.beta = beta;
+            this.ply = ply;
+            this.hintMove = hintMove;
+        }
+
+        @Override
+        protected void compute() {
+            if (aborted || isRefuted()) {
+                skipped = true;
+                return;
+            }
+            if (parent != null) {
+                synchronized (parent) {
+                    alpha = Math.max(alpha, parent.liveAlpha);
+                    beta = Math.min(beta, parent.liveBeta);
+                }
+            }
+            search();
+            if (parent != null && !aborted) {
+                synchronized (parent) {
+                    if (parent.maxmin) parent.liveAlpha = Math.max(parent.liveAlpha, value);
+                    else parent.liveBeta = Math.min(parent.liveBeta, value);
+                    // a young brother outside the window refutes the parent
+                    if (parent.liveAlpha >= parent.liveBeta) {
+                        parent.cutoff = true;
+                    }
+                }
+            }
+        }
+
+        private boolean isRefuted() {
+            for (NodeTask t = parent; t != null; t = t.parent) {
+                if (t.cutoff) return true;
+            }
+            return false;
+        }
+
+        private void search() {
+            AIPlayer h = workerHelper();
+            if (ply > 0 && (depth < MIN_SPLIT_DEPTH || board.isOver())) {
+                value = h.alphaBeta(maxmin, board, depth, alpha, beta, ply);
+                if (h.isAborted()) aborted = true;
+                return;
+            }
+
+            Piece toMove = maxmin ? owner.getPiece() : owner.getPiece().flip();
+            int[] moves = new int[board.getRows() * board.getColumns()];
+            int count = board.generateMoves(toMove, moves);
+            if (count == 0) {
+                // no move: same result as the sequential search
+                value = h.alphaBeta(maxmin, board, depth, alpha, beta, ply);
+                if (h.isAborted()) aborted = true;
+                return;
+            }
+            h.countNode();
+
+            long key = board.getHash() ^ Zobrist.sideKey(toMove);
+            TranspositionTable table = owner.getTranspositionTable();
+            int hashMove = hintMove;
+            int a = alpha;
+            int b = beta;
+            if (table != null && ply > 0) {
+                long entry = table.probe(key);
+                if (entry != 0) {
+                    hashMove = TranspositionTable.move(entry);
+                    if (TranspositionTable.depth(entry) >= depth) {
+                        int stored = TranspositionTable.value(entry);
+                        int flag = TranspositionTable.flag(entry);
+                        if (flag == TranspositionTable.LOWER) a = Math.max(a, stored);
+                        if (flag == TranspositionTable.UPPER) b = Math.min(b, stored);
+                        if (flag == TranspositionTable.EXACT || b <= a) {
+                            value = stored;
+                            return;
+                        }
+                    }
+                }
+            }
+            int alphaOrig = a;
+            int betaOrig = b;
+            h.orderMoves(moves, count, hashMove, toMove, ply);
+
+            // eldest brother first, on this thread
+            board.makeMove(moves[0], toMove);
+            NodeTask eldest = new NodeTask(this, !maxmin, board, depth - 1, a, b, ply + 1, -1);
+            eldest.search();
+            board.unmakeMove();
+            if (aborted) return;
+
+            int best = eldest.value;
+            bestMove = moves[0];
+            if (maxmin) a = Math.max(a, best);
+            else b = Math.min(b, best);
+
+            if (b <= a) {
+                h.countCutoff(0);
+            } else if (count > 1) {
+                // young brothers in parallel, starting from the bound of the eldest
+                synchronized (this) {
+                    liveAlpha = a;
+                    liveBeta = b;
+                }
+                NodeTask[] brothers = new NodeTask[count - 1];
+                for (int i = 1; i < count; i++) {
+                    Board child = board.cloneBoard();
+                    child.makeMove(moves[i], toMove);
+                    brothers[i - 1] = new NodeTask(this, !maxmin, child, depth - 1, a, b, ply + 1, -1);
+                }
+                // forked last to first so this thread pops them in move order
+                for (int i = brothers.length - 1; i >= 0; i--) {
+                    brothers[i].fork();
+                }
+                for (NodeTask brother : brothers) {
+                    brother.join();
+                }
+                if (aborted) return;
+
+                for (int i = 1; i < count; i++) {
+                    if (brothers[i - 1].skipped) continue;
+                    int v = brothers[i - 1].value;
+                    if (maxmin ? v > best : v < best) {
+                        best = v;
+                        bestMove = moves[i];
+                    }
+                }
+                if (maxmin ? best >= b : best <= a) {
+                    h.countCutoff(1);
+                }
+            }
+            value = best;
+
+            if (table != null && ply > 0) {
+                int flag = best <= alphaOrig ? TranspositionTable.UPPER
+                        : best >= betaOrig ? TranspositionTable.LOWER
+                        : TranspositionTable.EXACT;
+                table.store(key, best, depth, flag, bestMove);
+            }
+        }
+
+        private AIPlayer workerHelper() {
+            Worker w = worker.get();
+            if (w.searchId != searchId) {
+                w.helper.prepareHelper(owner, rootBoard, rootDepth, deadline);
+                w.searchId = searchId;
+            }
+            return w.helper;
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package othello;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// 8x8 evaluation from pattern lookup tables. Each pattern instance (a fixed list of squares) is
+// read as a base-3 number, digit i = square i of the instance: 0 empty, 1 black, 2 white, and
+// indexes the table of its family for the current game phase. All instances of a family are
+// rotations/reflections of one shape and share a table. The sum of the table values plus a
+// mobility term per phase is the score for black in 1/SCALE discs; white gets the negation.
+// A BitBoard with this evaluator attached keeps the instance indices up to date as discs are
+// placed and flipped (see BitBoard.setPatternEvaluator), so a leaf only sums table entries.
+//
+// Data file (gzip, big endian): int magic "OPT1", int phases, int families,
+// per family: int squares; then for each phase: short mobility weight, and per family 3^squares
+// shorts (the table). The geometry of the families is fixed in code and checked by size.
+public final class PatternEvaluator {
+    public static final int SCALE = 16;
+    public static final int PHASES = 6;
+    private static final int MAGIC = 0x4F505431; // "OPT1"
+    private static final String RESOURCE = "patterns.bin";
+
+    // base shape of each family; the other instances are its distinct symmetries
+    private static final int[][] FAMILY_SHAPES = {
+            {0, 1, 2, 3, 4, 5, 6, 7, 9, 14},        // edge + X squares
+            {0, 1, 2, 8, 9, 10, 16, 17, 18},        // 3x3 corner
+            {0, 1, 2, 3, 4, 8, 9, 10, 11, 12},      // 2x5 corner block
+            {0, 9, 18, 27, 36, 45, 54, 63},         // main diagonal
+            {1, 10, 19, 28, 37, 46, 55},            // diagonals of length 7..4
+            {2, 11, 20, 29, 38, 47},
+            {3, 12, 21, 30, 39},
+            {4, 13, 22, 31}
+    };
+    public static final int FAMILIES = FAMILY_SHAPES.length;
+
+    private static final int[][] INSTANCE_SQUARES;
+    private static final int[] INSTANCE_FAMILY;
+    // per square: the instances containing it and the power of 3 of its digit there
+    private static final int[][] SQUARE_INSTANCES = new int[64][];
+    private static final int[][] SQUARE_POWERS = new int[64][];
+
+    static {
+        List<int[]> squares = new ArrayList<>();
+        List<Integer> families = new ArrayList<>();
+        for (int f = 0; f < FAMILIES; f++) {
+            List<long[]> seen = new ArrayList<>();
+            for (int symmetry = 0; symmetry < 8; symmetry++) {
+                int[] instance = new int[FAMILY_SHAPES[f].length];
+                long mask = 0;
+                for (int i = 0; i < instance.length; i++) {
+                    instance[i] = transform(FAMILY_SHAPES[f][i], symmetry);
+                    mask |= 1L << instance[i];
+                }
+                long key = mask;
+                if (seen.stream().noneMatch(m -> m[0] == key)) {
+                    seen.add(new long[]{mask});
+                    squares.add(instance);
+                    families.add(f);
+                }
+            }
+        }
+        INSTANCE_SQUARES = squares.toArray(new int[0][]);
+        INSTANCE_FAMILY = families.stream().mapToInt(Integer::intValue).toArray();
+
+        int[] counts = new int[64];
+        for (int[] instance : INSTANCE_SQUARES) {
+            for (int square : instance) counts[square]++;
+        }
+        for (int square = 0; square < 64; square++) {
+            SQUARE_INSTANCES[square] = new int[counts[square]];
+            SQUARE_POWERS[square] = new int[counts[square]];
+        }
+        Arrays.fill(counts, 0);
+        for (int n = 0; n < INSTANCE_SQUARES.length; n++) {
+            int power = 1;
+            for (int square : INSTANCE_SQUARES[n]) {
+                SQUARE_INSTANCES[square][counts[square]] = n;
+                SQUARE_POWERS[square][counts[square]] = power;
+                counts[square]++;
+                power *= 3;
+            }
+        }
+    }
+
+    private final short[][][] tables; // [phase][family][index]
+    private final short[] mobilityWeights; // [phase]
+
+    public PatternEvaluator(short[][][] tables, short[] mobilityWeights) {
+        if (tables.length != PHASES || mobilityWeights.length != PHASES) {
+            throw new IllegalArgumentException("expected " + PHASES + " phases");
+        }
+        for (short[][] phase : tables) {
+            for (int f = 0; f < FAMILIES; f++) {
+                if (phase[f].length != tableSize(f)) {
+                    throw new IllegalArgumentException("table of family " + f + " has the wrong size");
+                }
+            }
+        }
+        this.tables = tables;
+        this.mobilityWeights = mobilityWeights;
+    }
+
+    // the tables shipped with the game, or null if they are missing
+    public static PatternEvaluator standard() {
+        return Standard.INSTANCE;
+    }
+
+    private static final class Standard {
+        static final PatternEvaluator INSTANCE = load();
+
+        private static PatternEvaluator load() {
+            try (InputStream in = PatternEvaluator.class.getResourceAsStream(RESOURCE)) {
+                return in != null ? read(in) : null;
+            } catch (IOException | IllegalArgumentException e) {
+                e.printStackTrace();
+                return null;
+            }
+        }
+    }
+
+    public static int instanceCount() {
+        return INSTANCE_SQUARES.length;
+    }
+
+    public static int instanceFamily(int instance) {
+        return INSTANCE_FAMILY[instance];
+    }
+
+    public static int tableSize(int family) {
+        int size = 1;
+        for (int i = 0; i < FAMILY_SHAPES[family].length; i++) size *= 3;
+        return size;
+    }
+
+    // 0 near the start .. PHASES - 1 near the end
+    public static int phase(int empties) {
+        return Math.min(PHASES - 1, Math.max(0, (60 - empties) * PHASES / 61));
+    }
+
+    // score for 'piece' in 1/SCALE discs; uses the board's incremental indices when it has them
+    public int evaluate(BitBoard board, Piece piece) {
+        long black = board.getBits(Piece.BLACK);
+        long white = board.getBits(Piece.WHITE);
+        int phase = phase(64 - Long.bitCount(black | white));
+        short[][] phaseTables = tables[phase];
+
+        int score = 0;
+        int[] indices = board.getPatternEvaluator() == this ? board.getPatternIndices() : null;
+        for (int n = 0; n < INSTANCE_SQUARES.length; n++) {
+            int index = indices != null ? indices[n] : index(INSTANCE_SQUARES[n], black, white);
+            score += phaseTables[INSTANCE_FAMILY[n]][index];
+        }
+        int mobility = Long.bitCount(BitBoard.legalMoves(black, white)) - Long.bitCount(BitBoard.legalMoves(white, black));
+        score += mobilityWeights[phase] * mobility;
+        return piece == Piece.BLACK ? score : -score;
+    }
+
+    // all instance indices of a position, into 'indices'
+    public static void computeIndices(long black, long white, int[] indices) {
+        for (int n = 0; n < INSTANCE_SQUARES.length; n++) {
+            indices[n] = index(INSTANCE_SQUARES[n], black, white);
+        }
+    }
+
+    private static int index(int[] squares, long black, long white) {
+        int index = 0;
+        for (int i = squares.length - 1; i >= 0; i--) {
+            long bit = 1L << squares[i];
+            index = index * 3 + ((black & bit) != 0 ? 1 : (white & bit) != 0 ? 2 : 0);
+        }
+        return index;
+    }
+
+    // a move by 'piece' on square flipping 'flipped'; sign -1 takes it back
+    static void update(int[] indices, int square, long flipped, Piece piece, int sign) {
+        int placed = piece == Piece.BLACK ? 1 : 2;
+        // a flipped disc goes from the other colour's digit to this one's
+        int flip = piece == Piece.BLACK ? -1 : 1;
+        addDigit(indices, square, sign * placed);
+        for (; flipped != 0; flipped &= flipped - 1) {
+            addDigit(indices, Long.numberOfTrailingZeros(flipped), sign * flip);
+        }
+    }
+
+    static void addDigit(int[] indices, int square, int delta) {
+        int[] instances = SQUARE_INSTANCES[square];
+        int[] powers = SQUARE_POWERS[square];
+        for (int k = 0; k < instances.length; k++) {
+            indices[instances[k]] += delta * powers[k];
+        }
+    }
+
+    public static PatternEvaluator read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new GZIPInputStream(in));
+        if (data.readInt() != MAGIC) {
+            throw new IllegalArgumentException("not a pattern file");
+        }
+        int phases = data.readInt();
+        int families = data.readInt();
+        if (phases != PHASES || families != FAMILIES) {
+            throw new IllegalArgumentException("pattern file has " + phases + " phases and " + families + " families");
+        }
+        for (int f = 0; f < FAMILIES; f++) {
+            if (data.readInt() != FAMILY_SHAPES[f].length) {
+                throw new IllegalArgumentException("pattern file does not match family " + f);
+            }
+        }
+        short[][][] tables = new short[PHASES][FAMILIES][];
+        short[] mobility = new short[PHASES];
+        for (int p = 0; p < PHASES; p++) {
+            mobility[p] = data.readShort();
+            for (int f = 0; f < FAMILIES; f++) {
+                tables[p][f] = new short[tableSize(f)];
+                for (int i = 0; i < tables[p][f].length; i++) {
+                    tables[p][f][i] = data.readShort();
+                }
+            }
+        }
+        return new PatternEvaluator(tables, mobility);
+    }
+
+    public void write(OutputStream out) throws IOException {
+        GZIPOutputStream zip = new GZIPOutputStream(out);
+        DataOutputStream data = new DataOutputStream(zip);
+        data.writeInt(MAGIC);
+        data.writeInt(PHASES);
+        data.writeInt(FAMILIES);
+        for (int[] shape : FAMILY_SHAPES) {
+            data.writeInt(shape.length);
+        }
+        for (int p = 0; p < PHASES; p++) {
+            data.writeShort(mobilityWeights[p]);
+            for (short[] table : tables[p]) {
+                for (short value : table) {
+                    data.writeShort(value);
+                }
+            }
+        }
+        data.flush();
+        zip.finish();
+    }
+
+    // one of the 8 symmetries of the board: optional transpose, then optional row/column mirror
+    private static int transform(int square, int symmetry) {
+        int row = square >>> 3;
+        int col = square & 7;
+        if ((symmetry & 1) != 0) {
+            int t = row;
+            row = col;
+            col = t;
+        }
+        if ((symmetry & 2) != 0) row = 7 - row;
+        if ((symmetry & 4) != 0) col = 7 - col;
+        return row * 8 + col;
+    }
+}
@@ -0,0 +1,75 @@
+package othello;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+// Pondering: while the opponent thinks, the AI already searches the position after the reply it
+// expects (the second move of its principal variation). When the opponent plays that move the
+// running or finished search is handed over as the AI's next move; any other move cancels it.
+// Used from one thread (the JavaFX thread in the game).
+public class Ponderer {
+    private final EngineService engine;
+
+    private CompletableFuture<SearchStats> search;
+    private int predictedMove = -1;
+    private long predictedHash;
+    private long hits;
+    private long misses;
+
+    public Ponderer(EngineService engine) {
+        this.engine = engine;
+    }
+
+    // board is the position after the AI's move, stats the result of that move's search.
+    // Returns false (and searches nothing) when there is no prediction or no AI move after it.
+    public boolean start(AIPlayer ai, Board board, SearchStats stats, Consumer<SearchProgress> progress) {
+        cancel();
+        int[] line = stats.principalVariation();
+        if (line.length < 2) return false;
+
+        Piece opponent = ai.getPiece().flip();
+        int reply = line[1];
+        Board predicted = board.cloneBoard();
+        if (!predicted.makeMove(reply, opponent) || predicted.countMoves(ai.getPiece()) == 0) {
+            return false;
+        }
+        predictedMove = reply;
+        predictedHash = predicted.getHash();
+        search = engine.search(ai, predicted, progress);
+        return true;
+    }
+
+    // The opponent played 'move' (row * columns + col) and board is the position after it.
+    // Returns the pondered search on a hit, or null after cancelling it on a miss.
+    public CompletableFuture<SearchStats> take(Board board, int move) {
+        if (search == null) return null;
+        CompletableFuture<SearchStats> result = search;
+        search = null;
+        if (move == predictedMove && board.getHash() == predictedHash) {
+            hits++;
+            return result;
+        }
+        misses++;
+        result.cancel(false);
+        return null;
+    }
+
+    public void cancel() {
+        if (search != null) {
+            search.cancel(false);
+            search = null;
+        }
+    }
+
+    public boolean isPondering() {
+        return search != null;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+}
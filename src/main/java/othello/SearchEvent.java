@@ -0,0 +1,46 @@
+package othello;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+// JFR event for one AI move search (AIPlayer.calculateBestMove); its duration is the whole search.
+@Name("othello.Search")
+@Label("AI Search")
+@Category({"Othello", "Engine"})
+@Description("One AI move search")
+class SearchEvent extends jdk.jfr.Event {
+    @Label("Algorithm")
+    String algorithm;
+
+    @Label("Player")
+    String player;
+
+    @Label("Depth Reached")
+    int depth;
+
+    @Label("Time Budget")
+    @Timespan(Timespan.MILLISECONDS)
+    long timeBudget;
+
+    @Label("Nodes")
+    long nodes;
+
+    @Label("Evaluations")
+    long evaluations;
+
+    @Label("Beta Cutoffs")
+    long cutoffs;
+
+    @Label("Nodes per Second")
+    long nodesPerSecond;
+
+    @Label("Best Move")
+    @Description("row * columns + col, -1 if there is no move")
+    int bestMove;
+
+    @Label("Best Value")
+    int bestValue;
+}
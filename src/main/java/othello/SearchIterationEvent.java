@@ -0,0 +1,22 @@
+package othello;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+// JFR event for one finished depth of a search, committed together with its SearchEvent
+@Name("othello.SearchIteration")
+@Label("AI Search Iteration")
+@Category({"Othello", "Engine"})
+class SearchIterationEvent extends jdk.jfr.Event {
+    @Label("Depth")
+    int depth;
+
+    @Label("Nodes")
+    long nodes;
+
+    @Label("Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long time;
+}
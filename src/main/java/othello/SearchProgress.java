@@ -0,0 +1,6 @@
+package othello;
+
+// Snapshot sent to a search listener while the AI is thinking.
+// depth is the iteration being searched, bestMove = row * columns + col (or -1).
+public record SearchProgress(int depth, int completedDepth, int bestMove, int bestValue, long nodes) {
+}
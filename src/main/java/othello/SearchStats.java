@@ -0,0 +1,18 @@
+package othello;
+
+import java.util.List;
+
+// Result of AIPlayer.calculateBestMoveWithStats: the move {row, col} (null when there is none)
+// and what the search did to find it. principalVariation holds the expected line of play as
+// squares (row * columns + col), starting with the move itself.
+public record SearchStats(int[] move, int bestValue, int depth, long nodes, long evaluations, long cutoffs,
+                          int[] principalVariation, long elapsedNanos, List<Iteration> iterations) {
+
+    // one finished iteration of iterative deepening (a fixed-depth search has exactly one)
+    public record Iteration(int depth, long nodes, long nanos) {
+    }
+
+    public long nodesPerSecond() {
+        return elapsedNanos > 0 ? nodes * 1_000_000_000L / elapsedNanos : 0;
+    }
+}
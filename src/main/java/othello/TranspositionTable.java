@@ -0,0 +1,128 @@
+package othello;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+// Fixed-size hash table of search results, stored in two primitive arrays.
+// Each slot holds (key ^ data) and data, so a torn or mismatched slot is simply a miss.
+// Slots come in pairs: the first is depth-preferred, the second is always replaced.
+public class TranspositionTable {
+    public static final int EXACT = 0;
+    public static final int LOWER = 1; // value is a lower bound (fail high)
+    public static final int UPPER = 2; // value is an upper bound (fail low)
+
+    // data layout: value 32 | move+1 9 | depth 8 | flag 2 | age 8 | used 1
+    private static final int MOVE_SHIFT = 32;
+    private static final int DEPTH_SHIFT = 41;
+    private static final int FLAG_SHIFT = 49;
+    private static final int AGE_SHIFT = 51;
+    private static final long USED = 1L << 63;
+    private static final int MAX_MOVE = 0x1FF;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int bucketMask;
+    private int age;
+
+    // updated by every thread of a parallel search at once
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+
+    public TranspositionTable(int sizeMb) {
+        // 16 bytes per slot, rounded down to a power of two number of buckets
+        long slots = Math.max(2, (long) sizeMb * 1024 * 1024 / 16);
+        int buckets = Integer.highestOneBit((int) Math.min(slots / 2, 1 << 30));
+        this.keys = new long[buckets * 2];
+        this.data = new long[buckets * 2];
+        this.bucketMask = buckets - 1;
+    }
+
+    // returns the stored data for key, or 0 when there is no entry
+    public long probe(long key) {
+        probes.increment();
+        int index = ((int) key & bucketMask) << 1;
+        for (int i = index; i < index + 2; i++) {
+            long d = data[i];
+            if (d != 0 && (keys[i] ^ d) == key) {
+                hits.increment();
+                return d;
+            }
+        }
+        return 0;
+    }
+
+    public void store(long key, int value, int depth, int flag, int move) {
+        // squares past 510 (boards larger than 22x22) do not fit the move field: stored without a move
+        if (move >= MAX_MOVE) move = -1;
+        long d = USED
+                | ((long) (age & 0xFF) << AGE_SHIFT)
+                | ((long) flag << FLAG_SHIFT)
+                | ((long) (depth & 0xFF) << DEPTH_SHIFT)
+                | ((long) (move + 1) << MOVE_SHIFT)
+                | (value & 0xFFFFFFFFL);
+
+        int index = ((int) key & bucketMask) << 1;
+        long old = data[index];
+        if (old == 0 || (keys[index] ^ old) == key || age(old) != age || depth >= depth(old)) {
+            keys[index] = key ^ d;
+            data[index] = d;
+        } else {
+            keys[index + 1] = key ^ d;
+            data[index + 1] = d;
+        }
+    }
+
+    // called once per search so entries from older searches lose their depth priority
+    public void newSearch() {
+        age = (age + 1) & 0xFF;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(data, 0);
+        resetStats();
+    }
+
+    public void resetStats() {
+        probes.reset();
+        hits.reset();
+    }
+
+    public long getProbes() {
+        return probes.sum();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public double getHitRate() {
+        long p = probes.sum();
+        return p == 0 ? 0 : (double) hits.sum() / p;
+    }
+
+    public int getCapacity() {
+        return data.length;
+    }
+
+    public static int value(long data) {
+        return (int) data;
+    }
+
+    // stored best move, or -1
+    public static int move(long data) {
+        return (int) ((data >>> MOVE_SHIFT) & 0x1FF) - 1;
+    }
+
+    public static int depth(long data) {
+        return (int) ((data >>> DEPTH_SHIFT) & 0xFF);
+    }
+
+    public static int flag(long data) {
+        return (int) ((data >>> FLAG_SHIFT) & 0x3);
+    }
+
+    private static int age(long data) {
+        return (int) ((data >>> AGE_SHIFT) & 0xFF);
+    }
+}
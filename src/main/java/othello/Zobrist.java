@@ -0,0 +1,52 @@
+package othello;
+
+import java.util.SplittableRandom;
+
+// Fixed random keys for position hashing. Squares of boards up to 16x16 take their keys from
+// tables; the few boards larger than that (plain Board) get theirs from a mix of the square number.
+public final class Zobrist {
+    public static final int MAX_SQUARES = 256;
+
+    private static final long[] BLACK_KEYS = new long[MAX_SQUARES];
+    private static final long[] WHITE_KEYS = new long[MAX_SQUARES];
+    // BLACK_KEYS[sq] ^ WHITE_KEYS[sq], used when a disc is flipped
+    private static final long[] FLIP_KEYS = new long[MAX_SQUARES];
+    private static final long WHITE_TO_MOVE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x0DD5EEDL);
+        for (int sq = 0; sq < MAX_SQUARES; sq++) {
+            BLACK_KEYS[sq] = random.nextLong();
+            WHITE_KEYS[sq] = random.nextLong();
+            FLIP_KEYS[sq] = BLACK_KEYS[sq] ^ WHITE_KEYS[sq];
+        }
+        WHITE_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    public static long pieceKey(Piece piece, int square) {
+        if (piece == null) return 0;
+        if (square >= MAX_SQUARES) return mix(2L * square + piece.ordinal());
+        return piece == Piece.BLACK ? BLACK_KEYS[square] : WHITE_KEYS[square];
+    }
+
+    public static long flipKey(int square) {
+        if (square >= MAX_SQUARES) return mix(2L * square) ^ mix(2L * square + 1);
+        return FLIP_KEYS[square];
+    }
+
+    // SplitMix64 finalizer: a well spread key for squares beyond the tables
+    private static long mix(long x) {
+        long z = x * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // mixed into a board hash to tell apart the same discs with a different side to move
+    public static long sideKey(Piece toMove) {
+        return toMove == Piece.WHITE ? WHITE_TO_MOVE : 0;
+    }
+}
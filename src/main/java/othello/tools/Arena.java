@@ -0,0 +1,183 @@
+package othello.tools;
+
+import othello.AIPlayer;
+import othello.BitBoard;
+import othello.PatternEvaluator;
+import othello.Piece;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Headless AI-vs-AI matches, played in parallel. Every pair of engines plays 'games' games; each
+// random opening is played twice with colours swapped. Reports wins/draws/losses, the Elo
+// difference with a 95% interval, and the mean time per move of each engine.
+// Usage: Arena [options] ENGINE ENGINE [ENGINE...]
+//   ENGINE: ALGORITHM:depth[:thinkMs[:patterns]], e.g. MINIMAX:2 ALPHABETA:4 ALPHABETA:8:100
+//           'patterns' scores leaves with PatternEvaluator.standard() instead of the square weights
+//   -games N     games per pair (default 100, rounded up to even)
+//   -threads N   parallel games (default: all cores)
+//   -opening N   random plies before the engines take over (default 6)
+//   -endgame N   empties solved exactly by every engine (default 0: the engines search to their
+//                depth up to the end, so depths are compared; AIPlayer.DEFAULT_ENDGAME_EMPTIES is 14)
+//   -seed N      seed of the openings (default 1)
+public class Arena {
+    record Engine(String name, AIPlayer.Algorithm algorithm, int depth, long thinkMs, boolean patterns) {
+        static Engine parse(String spec) {
+            String[] parts = spec.split(":");
+            AIPlayer.Algorithm algorithm = AIPlayer.Algorithm.valueOf(parts[0].toUpperCase());
+            int depth = parts.length > 1 ? Integer.parseInt(parts[1]) : 4;
+            long thinkMs = parts.length > 2 ? Long.parseLong(parts[2]) : 0;
+            boolean patterns = parts.length > 3 && parts[3].equalsIgnoreCase("patterns");
+            return new Engine(spec, algorithm, depth, thinkMs, patterns);
+        }
+    }
+
+    // one game from the first engine's point of view
+    record Result(int score, long firstNanos, int firstMoves, long secondNanos, int secondMoves) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int games = 100;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int openingPlies = 6;
+        int endgame = 0;
+        long seed = 1;
+        List<Engine> engines = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-games" -> games = Integer.parseInt(args[++i]);
+                case "-threads" -> threads = Integer.parseInt(args[++i]);
+                case "-opening" -> openingPlies = Integer.parseInt(args[++i]);
+                case "-endgame" -> endgame = Integer.parseInt(args[++i]);
+                case "-seed" -> seed = Long.parseLong(args[++i]);
+                default -> engines.add(Engine.parse(args[i]));
+            }
+        }
+        if (engines.size() < 2) {
+            engines = List.of(Engine.parse("MINIMAX:2"), Engine.parse("ALPHABETA:4"));
+        }
+        int pairs = (games + 1) / 2;
+
+        System.out.println(engines.size() + " engines, " + pairs * 2 + " games per pair, " + threads
+                + " threads, " + openingPlies + " random opening plies");
+        int plies = openingPlies;
+        int solveEmpties = endgame;
+        ThreadLocal<Map<String, AIPlayer>> players = ThreadLocal.withInitial(HashMap::new);
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int a = 0; a < engines.size(); a++) {
+                for (int b = a + 1; b < engines.size(); b++) {
+                    Engine first = engines.get(a);
+                    Engine second = engines.get(b);
+                    long start = System.nanoTime();
+                    List<Future<Result>> results = new ArrayList<>();
+                    for (int g = 0; g < pairs; g++) {
+                        long openingSeed = seed * 1_000_003L + g;
+                        for (boolean firstIsBlack : new boolean[]{true, false}) {
+                            results.add(executor.submit(() -> play(players.get(), first, second, firstIsBlack,
+                                    plies, openingSeed, solveEmpties)));
+                        }
+                    }
+                    report(first, second, results, start);
+                }
+            }
+        }
+    }
+
+    private static Result play(Map<String, AIPlayer> players, Engine first, Engine second, boolean firstIsBlack,
+                               int openingPlies, long openingSeed, int endgame) {
+        Piece firstPiece = firstIsBlack ? Piece.BLACK : Piece.WHITE;
+        AIPlayer firstPlayer = player(players, first, firstPiece, endgame);
+        AIPlayer secondPlayer = player(players, second, firstPiece.flip(), endgame);
+
+        BitBoard board = BenchmarkPositions.startPosition();
+        Piece toMove = Piece.BLACK;
+        Random random = new Random(openingSeed);
+        int[] moves = new int[64];
+        for (int ply = 0; ply < openingPlies && !board.isOver(); ply++) {
+            int count = board.generateMoves(toMove, moves);
+            if (count > 0) {
+                board.makeMove(moves[random.nextInt(count)], toMove);
+            }
+            toMove = toMove.flip();
+        }
+
+        long[] nanos = new long[2];
+        int[] moveCounts = new int[2];
+        while (!board.isOver()) {
+            if (board.countMoves(toMove) > 0) {
+                int side = toMove == firstPiece ? 0 : 1;
+                AIPlayer player = side == 0 ? firstPlayer : secondPlayer;
+                long start = System.nanoTime();
+                int[] move = player.calculateBestMove(board);
+                nanos[side] += System.nanoTime() - start;
+                moveCounts[side]++;
+                board.makeMove(move[0] * BitBoard.SIZE + move[1], toMove);
+            }
+            toMove = toMove.flip();
+        }
+        int diff = board.countPieces(firstPiece) - board.countPieces(firstPiece.flip());
+        return new Result(Integer.signum(diff), nanos[0], moveCounts[0], nanos[1], moveCounts[1]);
+    }
+
+    // one player per engine and colour on each thread, so tables and buffers are reused across games
+    private static AIPlayer player(Map<String, AIPlayer> players, Engine engine, Piece piece, int endgame) {
+        return players.computeIfAbsent(engine.name() + "/" + piece, key -> {
+            AIPlayer player = new AIPlayer(engine.name(), piece, engine.depth(), engine.algorithm());
+            player.setThinkTime(engine.thinkMs());
+            if (engine.patterns()) {
+                player.setPatternEvaluator(PatternEvaluator.standard());
+            }
+            player.setEndgameSolver(endgame, false);
+            player.setThreads(1);
+            return player;
+        });
+    }
+
+    private static void report(Engine first, Engine second, List<Future<Result>> results, long startNanos)
+            throws Exception {
+        int wins = 0;
+        int draws = 0;
+        int losses = 0;
+        long firstNanos = 0;
+        long secondNanos = 0;
+        long firstMoves = 0;
+        long secondMoves = 0;
+        for (Future<Result> future : results) {
+            Result result = future.get();
+            if (result.score() > 0) wins++;
+            else if (result.score() == 0) draws++;
+            else losses++;
+            firstNanos += result.firstNanos();
+            secondNanos += result.secondNanos();
+            firstMoves += result.firstMoves();
+            secondMoves += result.secondMoves();
+        }
+        long nanos = System.nanoTime() - startNanos;
+        int n = wins + draws + losses;
+        double score = (wins + 0.5 * draws) / n;
+        // standard error of the mean game score, for the 95% interval
+        double variance = (wins * Math.pow(1 - score, 2) + draws * Math.pow(0.5 - score, 2)
+                + losses * Math.pow(score, 2)) / n;
+        double margin = 1.96 * Math.sqrt(variance / n);
+
+        System.out.printf("%s vs %s: +%d =%d -%d (%.1f%%), Elo %s [%s, %s], %.1f s%n",
+                first.name(), second.name(), wins, draws, losses, score * 100, elo(score),
+                elo(score - margin), elo(score + margin), nanos / 1e9);
+        System.out.printf("  ms/move: %s %.2f, %s %.2f%n",
+                first.name(), firstNanos / 1e6 / Math.max(firstMoves, 1),
+                second.name(), secondNanos / 1e6 / Math.max(secondMoves, 1));
+    }
+
+    // Elo difference for an expected score; infinite at 0% or 100%
+    private static String elo(double score) {
+        if (score <= 0) return "-inf";
+        if (score >= 1) return "+inf";
+        return String.format("%+.0f", -400 * Math.log10(1 / score - 1));
+    }
+}
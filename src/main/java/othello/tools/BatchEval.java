@@ -0,0 +1,160 @@
+package othello.tools;
+
+import othello.AIPlayer;
+import othello.BatchEvaluator;
+import othello.Board;
+import othello.GameRecord;
+import othello.PatternEvaluator;
+import othello.Piece;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+// Scores a file of positions (one per line, see BatchEvaluator) with parallel engines and writes
+// one line per position in the same order: the position, the best move ("pass" if none), its value
+// from the side to move, the depth reached and the nodes searched. Throughput goes to stderr.
+// Usage: BatchEval [options] INPUT [OUTPUT]   (default output: standard output)
+//   -depth N      fixed depth (default 6)
+//   -time MS      think time per position instead of a depth
+//   -threads N    workers (default: available processors)
+//   -algorithm A  MINIMAX, ALPHABETA or PVS (default PVS)
+//   -patterns     8x8 pattern tables instead of square weights
+//   -hash MB      transposition table per engine (default 16)
+//   -reproducible clear the table before each position, so values do not depend on the thread count
+// BatchEval generate N OUTPUT [size] writes N positions from seeded random games instead.
+public class BatchEval {
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("generate")) {
+            generate(Long.parseLong(args[1]), Path.of(args[2]), args.length > 3 ? Integer.parseInt(args[3]) : 8);
+            return;
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        int depth = 6;
+        long timeMs = 0;
+        AIPlayer.Algorithm algorithm = AIPlayer.Algorithm.PVS;
+        boolean patterns = false;
+        int hashMb = 16;
+        boolean reproducible = false;
+        Path input = null;
+        Path output = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-depth" -> depth = Integer.parseInt(args[++i]);
+                case "-time" -> timeMs = Long.parseLong(args[++i]);
+                case "-threads" -> threads = Integer.parseInt(args[++i]);
+                case "-algorithm" -> algorithm = AIPlayer.Algorithm.valueOf(args[++i]);
+                case "-patterns" -> patterns = true;
+                case "-hash" -> hashMb = Integer.parseInt(args[++i]);
+                case "-reproducible" -> reproducible = true;
+                default -> {
+                    if (input == null) input = Path.of(args[i]);
+                    else output = Path.of(args[i]);
+                }
+            }
+        }
+        if (input == null) {
+            System.err.println("usage: BatchEval [-depth N | -time MS] [-threads N] [-algorithm A] [-patterns]"
+                    + " [-hash MB] [-reproducible] INPUT [OUTPUT]");
+            return;
+        }
+
+        try (BatchEvaluator evaluator = new BatchEvaluator(threads);
+             BufferedReader in = Files.newBufferedReader(input);
+             Writer out = output != null ? Files.newBufferedWriter(output)
+                     : new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16)) {
+            evaluator.setDepth(depth);
+            evaluator.setThinkTime(timeMs);
+            evaluator.setAlgorithm(algorithm);
+            evaluator.setTranspositionTableSize(hashMb);
+            evaluator.setReproducible(reproducible);
+            if (patterns) evaluator.setPatternEvaluator(PatternEvaluator.standard());
+
+            BatchEvaluator.Summary summary = evaluator.evaluate(lines(in), result -> {
+                BatchEvaluator.Position position = result.position();
+                Board board = position.board();
+                try {
+                    out.write(BatchEvaluator.format(board, position.toMove()) + " "
+                            + (result.move() >= 0 ? GameRecord.squareName(result.move(), board.getColumns()) : "pass")
+                            + " " + result.value() + " " + result.depth() + " " + result.nodes() + "\n");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            out.flush();
+            System.err.printf("%d positions on %d threads in %.2f s: %.1f positions/s, %.0f nodes/s%n",
+                    summary.positions(), threads, summary.elapsedNanos() / 1e9, summary.positionsPerSecond(),
+                    summary.nodes() * 1e9 / Math.max(1, summary.elapsedNanos()));
+        }
+    }
+
+    // the positions of a reader, skipping blank and '#' lines; a bad line stops the run with its number
+    private static Iterator<BatchEvaluator.Position> lines(BufferedReader in) {
+        return new Iterator<>() {
+            private BatchEvaluator.Position next;
+            private long lineNumber;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null) {
+                    String line;
+                    try {
+                        line = in.readLine();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    if (line == null) return false;
+                    lineNumber++;
+                    line = line.strip();
+                    if (line.isEmpty() || line.startsWith("#")) continue;
+                    try {
+                        next = BatchEvaluator.parse(line);
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException("line " + lineNumber + ": " + e.getMessage(), e);
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public BatchEvaluator.Position next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                BatchEvaluator.Position position = next;
+                next = null;
+                return position;
+            }
+        };
+    }
+
+    // positions from random games, at a random ply with a legal move for the side to move
+    private static void generate(long count, Path output, int size) throws IOException {
+        Random random = new Random(count);
+        int[] moves = new int[size * size];
+        try (PrintStream out = new PrintStream(Files.newOutputStream(output), false)) {
+            for (long i = 0; i < count; ) {
+                Board board = GameRecord.startPosition(size, size);
+                Piece toMove = Piece.BLACK;
+                int plies = random.nextInt(size * size - 4);
+                for (int ply = 0; ply < plies && !board.isOver(); ply++) {
+                    int n = board.generateMoves(toMove, moves);
+                    if (n > 0) board.makeMove(moves[random.nextInt(n)], toMove);
+                    toMove = toMove.flip();
+                }
+                if (board.countMoves(toMove) > 0) {
+                    out.println(BatchEvaluator.format(board, toMove));
+                    i++;
+                }
+            }
+        }
+        System.out.println("wrote " + count + " positions to " + output);
+    }
+}
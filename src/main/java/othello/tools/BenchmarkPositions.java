@@ -0,0 +1,85 @@
+package othello.tools;
+
+import othello.BitBoard;
+import othello.Board;
+import othello.Piece;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Fixed, reproducible 8x8 positions for the benchmark and report tools.
+// Each one is reached by seeded random play from the start position.
+public final class BenchmarkPositions {
+    public record Position(String name, Board board, Piece toMove) {
+    }
+
+    private BenchmarkPositions() {
+    }
+
+    public static List<Position> opening() {
+        return generate("opening", 6, 4, 100);
+    }
+
+    public static List<Position> midgame() {
+        return generate("midgame", 24, 4, 200);
+    }
+
+    public static List<Position> endgame() {
+        return generate("endgame", 46, 4, 300);
+    }
+
+    public static List<Position> all() {
+        List<Position> result = new ArrayList<>(opening());
+        result.addAll(midgame());
+        result.addAll(endgame());
+        return result;
+    }
+
+    // positions with exactly 'empties' empty squares and a legal move for the side to move
+    public static List<Position> withEmpties(int empties, int count, long seed) {
+        return generate("empties" + empties, 60 - empties, count, seed);
+    }
+
+    public static BitBoard startPosition() {
+        BitBoard board = new BitBoard();
+        board.setPiece(3, 3, Piece.WHITE);
+        board.setPiece(4, 4, Piece.WHITE);
+        board.setPiece(4, 3, Piece.BLACK);
+        board.setPiece(3, 4, Piece.BLACK);
+        return board;
+    }
+
+    private static List<Position> generate(String name, int discsPlayed, int count, long seed) {
+        List<Position> result = new ArrayList<>();
+        for (long s = seed; result.size() < count; s++) {
+            Position position = playout(name + "-" + (result.size() + 1), discsPlayed, s);
+            if (position != null) {
+                result.add(position);
+            }
+        }
+        return result;
+    }
+
+    // random game until 'discsPlayed' moves were made; null if it ended early or the side to move must pass
+    private static Position playout(String name, int discsPlayed, long seed) {
+        Random random = new Random(seed);
+        BitBoard board = startPosition();
+        int[] moves = new int[64];
+        Piece toMove = Piece.BLACK;
+        int played = 0;
+        while (played < discsPlayed) {
+            int count = board.generateMoves(toMove, moves);
+            if (count == 0) {
+                if (board.isOver()) return null;
+            } else {
+                int move = moves[random.nextInt(count)];
+                board.placePiece(move / 8, move % 8, toMove);
+                played++;
+            }
+            toMove = toMove.flip();
+        }
+        if (board.legalMoves(toMove) == 0) return null;
+        return new Position(name, board, toMove);
+    }
+}
@@ -0,0 +1,131 @@
+package othello.tools;
+
+import othello.BitBoard;
+import othello.Board;
+import othello.LargeBitBoard;
+import othello.Piece;
+
+import java.util.Random;
+
+// Plays random games on Board and a bitboard (BitBoard for 8x8, LargeBitBoard for other sizes)
+// side by side and checks every operation agrees, including makeMove/unmakeMove for each legal
+// move and the incremental Zobrist hash, which must also equal a hash computed from scratch.
+// Boards larger than 16x16 have no bitboard; there a second Board plays along.
+// Usage: BoardCheck [games] [seed] [size] (default 10000 42 8)
+public class BoardCheck {
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 42L;
+        int size = args.length > 2 ? Integer.parseInt(args[2]) : BitBoard.SIZE;
+        Random random = new Random(seed);
+
+        long positions = 0;
+        for (int g = 0; g < games; g++) {
+            Board reference = new Board(size, size);
+            Board bitBoard = size == BitBoard.SIZE ? new BitBoard()
+                    : size <= LargeBitBoard.MAX_SIZE ? new LargeBitBoard(size, size) : new Board(size, size);
+            setupStart(reference);
+            setupStart(bitBoard);
+
+            Piece toMove = Piece.BLACK;
+            int[] moves = new int[size * size];
+            int[] bitMoves = new int[size * size];
+            while (true) {
+                compare(reference, bitBoard, g);
+                positions++;
+                if (reference.isOver()) break;
+
+                int count = reference.generateMoves(toMove, moves);
+                int bitCount = bitBoard.generateMoves(toMove, bitMoves);
+                if (count != bitCount || bitBoard.countMoves(toMove) != count) {
+                    fail(g, "move count " + count + " vs " + bitCount);
+                }
+                for (int i = 0; i < count; i++) {
+                    if (moves[i] != bitMoves[i]) fail(g, "move list differs at " + i);
+                    checkMakeUnmake(reference, moves[i], toMove, g);
+                    checkMakeUnmake(bitBoard, moves[i], toMove, g);
+                }
+                if (count > 0) {
+                    int move = moves[random.nextInt(count)];
+                    reference.placePiece(move / size, move % size, toMove);
+                    bitBoard.placePiece(move / size, move % size, toMove);
+                }
+                toMove = toMove.flip();
+            }
+        }
+        System.out.println("OK: " + games + " games, " + positions + " positions match");
+    }
+
+    private static void setupStart(Board board) {
+        int half = board.getRows() / 2;
+        board.setPiece(half - 1, half - 1, Piece.WHITE);
+        board.setPiece(half, half, Piece.WHITE);
+        board.setPiece(half, half - 1, Piece.BLACK);
+        board.setPiece(half - 1, half, Piece.BLACK);
+    }
+
+    private static void compare(Board reference, Board bitBoard, int game) {
+        int size = reference.getRows();
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                if (reference.getPiece(r, c) != bitBoard.getPiece(r, c)) {
+                    fail(game, "piece at " + r + "," + c);
+                }
+                for (Piece p : Piece.values()) {
+                    if (reference.canPlacePiece(r, c, p) != bitBoard.canPlacePiece(r, c, p)) {
+                        fail(game, "canPlacePiece " + p + " at " + r + "," + c);
+                    }
+                }
+            }
+        }
+        for (Piece p : Piece.values()) {
+            if (reference.countPieces(p) != bitBoard.countPieces(p)) fail(game, "countPieces " + p);
+        }
+        if (reference.isOver() != bitBoard.isOver()) fail(game, "isOver");
+        if (reference.getHash() != bitBoard.getHash()) fail(game, "getHash");
+        Board scratch = new Board(size, size);
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                if (reference.getPiece(r, c) != null) scratch.setPiece(r, c, reference.getPiece(r, c));
+            }
+        }
+        if (scratch.getHash() != reference.getHash()) fail(game, "incremental hash differs from a fresh one");
+        if (reference.isFull() != bitBoard.isFull()) fail(game, "isFull");
+
+        Board copy = bitBoard.cloneBoard();
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                if (copy.getPiece(r, c) != bitBoard.getPiece(r, c)) fail(game, "cloneBoard");
+            }
+        }
+    }
+
+    // makeMove must match placePiece, and unmakeMove must restore the position
+    private static void checkMakeUnmake(Board board, int move, Piece piece, int game) {
+        Board before = board.cloneBoard();
+        Board placed = board.cloneBoard();
+        placed.placePiece(move / board.getColumns(), move % board.getColumns(), piece);
+
+        if (!board.makeMove(move, piece)) fail(game, "makeMove rejected " + move);
+        if (!samePieces(board, placed) || board.getHash() != placed.getHash()) {
+            fail(game, "makeMove differs from placePiece at " + move);
+        }
+        board.unmakeMove();
+        if (!samePieces(board, before) || board.getHash() != before.getHash()) {
+            fail(game, "unmakeMove did not restore " + move);
+        }
+    }
+
+    private static boolean samePieces(Board a, Board b) {
+        for (int r = 0; r < a.getRows(); r++) {
+            for (int c = 0; c < a.getColumns(); c++) {
+                if (a.getPiece(r, c) != b.getPiece(r, c)) return false;
+            }
+        }
+        return true;
+    }
+
+    private static void fail(int game, String message) {
+        throw new IllegalStateException("Mismatch in game " + game + ": " + message);
+    }
+}
@@ -0,0 +1,77 @@
+package othello.tools;
+
+import othello.AIPlayer;
+import othello.BitBoard;
+import othello.OpeningBook;
+import othello.Piece;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Builds the 8x8 opening book: every position up to 'plies' moves from the start is searched,
+// and each legal move gets the value of an alpha-beta search 'depth' plies deep.
+// Usage: BookBuilder [plies] [depth] [output] (default 4 10 book/opening.book)
+public class BookBuilder {
+    public static void main(String[] args) throws Exception {
+        int plies = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        Path output = Path.of(args.length > 2 ? args[2] : "book/opening.book");
+
+        AIPlayer black = new AIPlayer("Book", Piece.BLACK, depth - 1, AIPlayer.Algorithm.ALPHABETA);
+        AIPlayer white = new AIPlayer("Book", Piece.WHITE, depth - 1, AIPlayer.Algorithm.ALPHABETA);
+        long start = System.nanoTime();
+
+        List<OpeningBook.Entry> entries = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        List<BitBoard> level = List.of(BenchmarkPositions.startPosition());
+        Piece toMove = Piece.BLACK;
+        int positions = 0;
+        int[] moves = new int[64];
+        for (int ply = 0; ply <= plies; ply++) {
+            List<BitBoard> next = new ArrayList<>();
+            for (BitBoard board : level) {
+                if (!seen.add(OpeningBook.key(board, toMove))) continue;
+                int count = board.generateMoves(toMove, moves);
+                positions++;
+                for (int i = 0; i < count; i++) {
+                    BitBoard child = board.cloneBoard();
+                    child.makeMove(moves[i], toMove);
+                    int value = moveValue(child, toMove, toMove == Piece.BLACK ? black : white,
+                            toMove == Piece.BLACK ? white : black, depth - 1);
+                    entries.add(new OpeningBook.Entry(OpeningBook.key(board, toMove),
+                            new OpeningBook.Move(moves[i], value, depth, 0)));
+                    if (ply < plies) next.add(child);
+                }
+            }
+            level = next;
+            toMove = toMove.flip();
+            System.out.println("ply " + ply + ": " + positions + " positions, " + entries.size() + " moves, "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+        }
+
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        OpeningBook.write(output, BitBoard.SIZE, BitBoard.SIZE, entries);
+        System.out.println("wrote " + output + ": " + Files.size(output) + " bytes");
+    }
+
+    // value for 'mover' of the position after its move, searched 'depth' more plies
+    private static int moveValue(BitBoard board, Piece mover, AIPlayer self, AIPlayer opponent, int depth) {
+        if (board.isOver() || depth == 0) {
+            return self.heuristic(board);
+        }
+        // the evaluation is symmetric, so the opponent's best value is minus ours
+        if (board.countMoves(mover.flip()) > 0) {
+            opponent.searchBestMove(board, depth);
+            return -opponent.getBestValue();
+        }
+        // the opponent passes
+        self.searchBestMove(board, depth);
+        return self.getBestValue();
+    }
+}
@@ -0,0 +1,94 @@
+package othello.tools;
+
+import othello.BitBoard;
+import othello.EndgameSolver;
+import othello.Piece;
+
+import java.util.List;
+
+// Solve times of EndgameSolver on the generated endgame sets (BenchmarkPositions.withEmpties),
+// exact and win/loss/draw. Checks that WLD agrees with the sign of the exact score, that the best
+// move reaches the exact score and, up to 10 empties, that a plain minimax finds the same score.
+// Usage: EndgameBench [maxEmpties] [positions] (default 20 4); exits with status 1 on a mismatch.
+public class EndgameBench {
+    public static void main(String[] args) {
+        int maxEmpties = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        EndgameSolver solver = new EndgameSolver();
+        boolean ok = true;
+
+        System.out.printf("%-8s %-12s %6s %12s %10s %12s %10s%n",
+                "empties", "position", "score", "nodes", "ms", "WLD nodes", "WLD ms");
+        for (int empties = 8; empties <= maxEmpties; empties += 2) {
+            List<BenchmarkPositions.Position> positions = BenchmarkPositions.withEmpties(empties, count, 1000 + empties);
+            long totalNanos = 0;
+            long totalWldNanos = 0;
+            for (BenchmarkPositions.Position position : positions) {
+                BitBoard board = BitBoard.of(position.board());
+                Piece toMove = position.toMove();
+
+                long start = System.nanoTime();
+                int score = solver.solve(board, toMove);
+                long nanos = System.nanoTime() - start;
+                long nodes = solver.getNodes();
+                int bestMove = solver.getBestMove();
+
+                start = System.nanoTime();
+                int wld = solver.solveWld(board, toMove);
+                long wldNanos = System.nanoTime() - start;
+                long wldNodes = solver.getNodes();
+                totalNanos += nanos;
+                totalWldNanos += wldNanos;
+
+                System.out.printf("%-8d %-12s %6d %12d %10.1f %12d %10.1f%n", empties, position.name(), score,
+                        nodes, nanos / 1e6, wldNodes, wldNanos / 1e6);
+
+                if (wld != Integer.signum(score)) {
+                    System.out.println("  WLD " + wld + " does not match score " + score);
+                    ok = false;
+                }
+                BitBoard child = board.cloneBoard();
+                child.makeMove(bestMove, toMove);
+                int childScore = child.countMoves(toMove.flip()) > 0
+                        ? -solver.solve(child, toMove.flip())
+                        : solver.solve(child, toMove);
+                if (childScore != score) {
+                    System.out.println("  best move " + bestMove + " scores " + childScore + ", not " + score);
+                    ok = false;
+                }
+                if (empties <= 10) {
+                    int reference = minimax(board.getBits(toMove), board.getBits(toMove.flip()));
+                    if (reference != score) {
+                        System.out.println("  plain minimax scores " + reference + ", not " + score);
+                        ok = false;
+                    }
+                }
+            }
+            System.out.printf("%-8d %-12s %6s %12s %10.1f %12s %10.1f%n", empties, "mean", "", "",
+                    totalNanos / 1e6 / positions.size(), "", totalWldNanos / 1e6 / positions.size());
+        }
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+
+    // full-width negamax to the end, no pruning
+    private static int minimax(long own, long opp) {
+        long moves = BitBoard.legalMoves(own, opp);
+        if (moves == 0) {
+            if (BitBoard.legalMoves(opp, own) == 0) {
+                int diff = Long.bitCount(own) - Long.bitCount(opp);
+                int empties = 64 - Long.bitCount(own | opp);
+                return diff > 0 ? diff + empties : diff < 0 ? diff - empties : 0;
+            }
+            return -minimax(opp, own);
+        }
+        int best = -65;
+        for (; moves != 0; moves &= moves - 1) {
+            int square = Long.numberOfTrailingZeros(moves);
+            long flipped = BitBoard.computeFlips(square, own, opp);
+            best = Math.max(best, -minimax(opp & ~flipped, own | flipped | (1L << square)));
+        }
+        return best;
+    }
+}
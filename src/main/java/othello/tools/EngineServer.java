@@ -0,0 +1,89 @@
+package othello.tools;
+
+import othello.EngineProtocol;
+import othello.EngineService;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+// Serves the engine protocol (see EngineProtocol) on standard input/output, or over TCP with
+// -port: every connection is its own session on a virtual thread.
+// Usage: EngineServer [-port N] [-bind ADDRESS]   (default address: loopback)
+public class EngineServer {
+    public static void main(String[] args) throws IOException {
+        int port = -1;
+        String bind = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-port" -> port = Integer.parseInt(args[++i]);
+                case "-bind" -> bind = args[++i];
+                default -> {
+                    System.err.println("usage: EngineServer [-port N] [-bind ADDRESS]");
+                    return;
+                }
+            }
+        }
+        try (EngineService engine = new EngineService()) {
+            if (port < 0) {
+                serve(engine, new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)),
+                        System.out);
+                return;
+            }
+            InetAddress address = bind != null ? InetAddress.getByName(bind) : InetAddress.getLoopbackAddress();
+            try (ServerSocket server = new ServerSocket(port, 128, address)) {
+                System.err.println("listening on " + server.getLocalSocketAddress());
+                listen(engine, server);
+            }
+        }
+    }
+
+    // accepts connections until the server socket is closed
+    static void listen(EngineService engine, ServerSocket server) {
+        while (!server.isClosed()) {
+            Socket socket;
+            try {
+                socket = server.accept();
+            } catch (IOException e) {
+                return;
+            }
+            Thread.ofVirtual().name("engine-session").start(() -> {
+                try (socket) {
+                    socket.setTcpNoDelay(true);
+                    serve(engine, new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                            StandardCharsets.UTF_8)), socket.getOutputStream());
+                } catch (IOException | UncheckedIOException e) {
+                    // the client went away; nothing left to answer
+                }
+            });
+        }
+    }
+
+    // one session: commands from in until "quit" or end of input, responses to out
+    static void serve(EngineService engine, BufferedReader in, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try (EngineProtocol protocol = new EngineProtocol(engine, response -> {
+            try {
+                writer.write(response);
+                writer.write("\n\n");
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        })) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (!protocol.handle(line)) break;
+            }
+        }
+    }
+}
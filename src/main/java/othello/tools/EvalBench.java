@@ -0,0 +1,133 @@
+package othello.tools;
+
+import othello.AIPlayer;
+import othello.BitBoard;
+import othello.Board;
+import othello.Piece;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Checks AIPlayer.heuristic against the original per-cell evaluation on random games, for both
+// board types and after make/unmake, then times both versions per leaf evaluation.
+// Usage: EvalBench [games] [seed]; exits with status 1 on a mismatch.
+public class EvalBench {
+    // the weight table of the original evaluation
+    private static final int[][] WEIGHTS = {
+            {20, -3, 11, 8, 8, 11, -3, 20},
+            {-3, -7, -4, 1, 1, -4, -7, -3},
+            {11, -4, 2, 2, 2, 2, -4, 11},
+            {8, 1, 2, -3, -3, 2, 1, 8},
+            {8, 1, 2, -3, -3, 2, 1, 8},
+            {11, -4, 2, 2, 2, 2, -4, 11},
+            {-3, -7, -4, 1, 1, -4, -7, -3},
+            {20, -3, 11, 8, 8, 11, -3, 20}
+    };
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1;
+
+        AIPlayer black = new AIPlayer("AI", Piece.BLACK);
+        AIPlayer white = new AIPlayer("AI", Piece.WHITE);
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Board> positions = new ArrayList<>();
+        long checked = 0;
+        for (int g = 0; g < games; g++) {
+            BitBoard bitBoard = BenchmarkPositions.startPosition();
+            Board board = toBoard(bitBoard);
+            Piece toMove = Piece.BLACK;
+            int[] moves = new int[64];
+            while (!bitBoard.isOver()) {
+                checked += check(black, board, bitBoard) + check(white, board, bitBoard);
+                int count = bitBoard.generateMoves(toMove, moves);
+                if (count > 0) {
+                    int move = moves[random.nextInt(count)];
+                    // make/unmake on a copy must come back to the same score
+                    BitBoard copy = bitBoard.cloneBoard();
+                    copy.makeMove(move, toMove);
+                    copy.unmakeMove();
+                    checked += check(black, board, copy);
+                    board.makeMove(move, toMove);
+                    bitBoard.makeMove(move, toMove);
+                    positions.add(bitBoard.cloneBoard());
+                }
+                toMove = toMove.flip();
+            }
+        }
+        System.out.println(checked + " evaluations checked on " + games + " games");
+
+        Board[] bitBoards = positions.toArray(new Board[0]);
+        Board[] plainBoards = new Board[bitBoards.length];
+        for (int i = 0; i < bitBoards.length; i++) {
+            plainBoards[i] = toBoard(bitBoards[i]);
+        }
+        time("BitBoard", black, bitBoards);
+        time("Board", black, plainBoards);
+    }
+
+    private static Board toBoard(Board source) {
+        Board board = new Board(8, 8);
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 8; c++) {
+                board.setPiece(r, c, source.getPiece(r, c));
+            }
+        }
+        return board;
+    }
+
+    private static int check(AIPlayer ai, Board board, Board bitBoard) {
+        int expected = original(ai.getPiece(), board);
+        int actual = ai.heuristic(board);
+        int actualBits = ai.heuristic(bitBoard);
+        if (actual != expected || actualBits != expected) {
+            System.out.println("mismatch for " + ai.getPiece() + ": original " + expected
+                    + ", Board " + actual + ", BitBoard " + actualBits);
+            System.exit(1);
+        }
+        return 2;
+    }
+
+    private static void time(String name, AIPlayer ai, Board[] boards) {
+        long sink = 0;
+        double originalNs = 0;
+        double currentNs = 0;
+        for (int round = 0; round < 10; round++) {
+            long start = System.nanoTime();
+            for (Board board : boards) sink += original(ai.getPiece(), board);
+            long middle = System.nanoTime();
+            for (Board board : boards) sink += ai.heuristic(board);
+            long end = System.nanoTime();
+            // the first rounds only warm up the JIT
+            if (round >= 5) {
+                originalNs += (double) (middle - start) / boards.length / 5;
+                currentNs += (double) (end - middle) / boards.length / 5;
+            }
+        }
+        System.out.printf("%-8s original %8.1f ns/eval, incremental %8.1f ns/eval, %.1fx (%d)%n",
+                name, originalNs, currentNs, originalNs / currentNs, sink & 1);
+    }
+
+    // AIPlayer's evaluation before the board kept a running weighted score
+    private static int original(Piece myPiece, Board board) {
+        Piece oppPiece = myPiece.flip();
+        int myScore = 0;
+        int oppScore = 0;
+        int myMobility = 0;
+        int oppMobility = 0;
+        for (int r = 0; r < board.getRows(); r++) {
+            for (int c = 0; c < board.getColumns(); c++) {
+                Piece p = board.getPiece(r, c);
+                if (p == myPiece) {
+                    myScore += WEIGHTS[r][c];
+                } else if (p == oppPiece) {
+                    oppScore += WEIGHTS[r][c];
+                }
+                if (board.canPlacePiece(r, c, myPiece)) myMobility++;
+                if (board.canPlacePiece(r, c, oppPiece)) oppMobility++;
+            }
+        }
+        return (myScore - oppScore) + 10 * (myMobility - oppMobility);
+    }
+}
@@ -0,0 +1,142 @@
+package othello.tools;
+
+import othello.Board;
+import othello.GameDatabase;
+import othello.GameRecord;
+import othello.Piece;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+// Game database maintenance and throughput:
+//   import FILE DB [size]       append one text transcript per line (blank and '#' lines skipped)
+//   export DB [FILE]            write every game as a transcript line (default: standard output)
+//   generate DB GAMES [size]    append seeded random games, e.g. to time scans over millions of games
+//   scan DB                     read every game through the mapped file (games/s, MB/s), then replay
+//                               each one to its end and check the stored result (positions/s)
+// Usage: GameDatabaseTool import|export|generate|scan ... (size defaults to 8)
+public class GameDatabaseTool {
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("usage: GameDatabaseTool import FILE DB [size] | export DB [FILE]"
+                    + " | generate DB GAMES [size] | scan DB");
+            return;
+        }
+        switch (args[0]) {
+            case "import" -> importTranscripts(Path.of(args[1]), Path.of(args[2]),
+                    args.length > 3 ? Integer.parseInt(args[3]) : 8);
+            case "export" -> export(Path.of(args[1]), args.length > 2 ? Path.of(args[2]) : null);
+            case "generate" -> generate(Path.of(args[1]), Long.parseLong(args[2]),
+                    args.length > 3 ? Integer.parseInt(args[3]) : 8);
+            case "scan" -> scan(Path.of(args[1]));
+            default -> System.out.println("unknown command " + args[0]);
+        }
+    }
+
+    private static void importTranscripts(Path input, Path database, int size) throws IOException {
+        int lineNumber = 0;
+        int rejected = 0;
+        try (BufferedReader in = Files.newBufferedReader(input);
+             GameDatabase.Writer writer = GameDatabase.Writer.open(database)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                lineNumber++;
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                try {
+                    writer.add(GameRecord.parse(line, size, size));
+                } catch (IllegalArgumentException e) {
+                    rejected++;
+                    System.out.println("line " + lineNumber + ": " + e.getMessage());
+                }
+            }
+            System.out.println("imported " + writer.count() + " games, rejected " + rejected);
+        }
+    }
+
+    private static void export(Path database, Path output) throws IOException {
+        PrintStream out = output == null ? System.out : new PrintStream(Files.newOutputStream(output), false);
+        try (GameDatabase.Reader reader = GameDatabase.open(database)) {
+            while (reader.next()) {
+                out.println(reader.record().toTranscript());
+            }
+        } finally {
+            out.flush();
+            if (output != null) out.close();
+        }
+    }
+
+    private static void generate(Path database, long games, int size) throws IOException {
+        Random random = new Random(games);
+        int[] moves = new int[size * size];
+        int[] played = new int[size * size];
+        long start = System.nanoTime();
+        try (GameDatabase.Writer writer = GameDatabase.Writer.open(database)) {
+            for (long g = 0; g < games; g++) {
+                Board board = GameRecord.startPosition(size, size);
+                Piece toMove = Piece.BLACK;
+                int count = 0;
+                int passes = 0;
+                while (passes < 2) {
+                    int n = board.generateMoves(toMove, moves);
+                    if (n > 0) {
+                        played[count] = moves[random.nextInt(n)];
+                        board.makeMove(played[count++], toMove);
+                        passes = 0;
+                    } else {
+                        passes++;
+                    }
+                    toMove = toMove.flip();
+                }
+                writer.add(GameRecord.of(size, size, played, count,
+                        board.countPieces(Piece.BLACK) - board.countPieces(Piece.WHITE)));
+            }
+        }
+        System.out.printf("generated %d games in %.1f s; %s is %d bytes%n", games,
+                (System.nanoTime() - start) / 1e9, database, Files.size(database));
+    }
+
+    private static void scan(Path database) throws IOException {
+        long bytes = Files.size(database);
+        long games = 0;
+        long moves = 0;
+        long blackWins = 0;
+        long whiteWins = 0;
+        long checksum = 0;
+        long start = System.nanoTime();
+        try (GameDatabase.Reader reader = GameDatabase.open(database)) {
+            while (reader.next()) {
+                int count = reader.moveCount();
+                for (int ply = 0; ply < count; ply++) {
+                    checksum += reader.move(ply);
+                }
+                games++;
+                moves += count;
+                if (reader.result() > 0) blackWins++;
+                else if (reader.result() < 0) whiteWins++;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d games, %d moves (black %d, white %d, draws %d; checksum %d)%n", games, moves,
+                blackWins, whiteWins, games - blackWins - whiteWins, checksum);
+        System.out.printf("scan: %.2f s, %.0f games/s, %.0f MB/s%n", seconds, games / seconds,
+                bytes / seconds / 1e6);
+
+        long mismatches = 0;
+        start = System.nanoTime();
+        try (GameDatabase.Reader reader = GameDatabase.open(database)) {
+            while (reader.next()) {
+                GameRecord game = reader.record();
+                GameRecord.Position end = game.replay(game.moveCount());
+                if (end.state().blackCount() - end.state().whiteCount() != game.result()) mismatches++;
+            }
+        }
+        seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("replay: %.2f s, %.0f games/s, %.0f moves/s, %d results differ%n", seconds,
+                games / seconds, moves / seconds, mismatches);
+    }
+}
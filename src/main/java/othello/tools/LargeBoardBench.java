@@ -0,0 +1,123 @@
+package othello.tools;
+
+import othello.AIPlayer;
+import othello.BitBoard;
+import othello.Board;
+import othello.LargeBitBoard;
+import othello.Piece;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Scaling of the board implementations with the board size: random playouts (generateMoves,
+// makeMove, then unmakeMove back to the start) and a fixed-depth alpha-beta search without
+// transposition table from positions a quarter of the way into random games, on Board
+// (Piece[][]) and LargeBitBoard, plus BitBoard at 8x8. Each timing repeats for about a second.
+// Usage: LargeBoardBench [depth] [sizes...] (default 4 8 10 12 16)
+public class LargeBoardBench {
+    private static final int SEARCH_POSITIONS = 8;
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int[] sizes = {8, 10, 12, 16};
+        if (args.length > 1) {
+            sizes = new int[args.length - 1];
+            for (int i = 1; i < args.length; i++) sizes[i - 1] = Integer.parseInt(args[i]);
+        }
+
+        System.out.printf("%-6s %-14s %16s %16s %14s %12s%n",
+                "size", "board", "playout moves/s", "search nodes/s", "search nodes", "ms/search");
+        for (int size : sizes) {
+            List<String> names = new ArrayList<>(List.of("Board", "LargeBitBoard"));
+            if (size == BitBoard.SIZE) names.add("BitBoard");
+            for (String name : names) {
+                double movesPerSecond = playouts(size, name);
+                long[] search = search(size, name, depth);
+                System.out.printf("%-6s %-14s %16.0f %16.0f %14d %12.2f%n", size + "x" + size, name,
+                        movesPerSecond, search[0] * 1e9 / search[1], search[0] / SEARCH_POSITIONS,
+                        search[1] / 1e6 / SEARCH_POSITIONS);
+            }
+        }
+    }
+
+    private static Board create(int size, String name) {
+        Board board = switch (name) {
+            case "BitBoard" -> new BitBoard();
+            case "LargeBitBoard" -> new LargeBitBoard(size, size);
+            default -> new Board(size, size);
+        };
+        int half = size / 2;
+        board.setPiece(half - 1, half - 1, Piece.WHITE);
+        board.setPiece(half, half, Piece.WHITE);
+        board.setPiece(half, half - 1, Piece.BLACK);
+        board.setPiece(half - 1, half, Piece.BLACK);
+        return board;
+    }
+
+    // moves per second over random games, played in place and taken back
+    private static double playouts(int size, String name) {
+        Board board = create(size, name);
+        int[] moves = new int[size * size];
+        Random random = new Random(1);
+        long moveCount = 0;
+        long start = System.nanoTime();
+        long nanos;
+        do {
+            Piece toMove = Piece.BLACK;
+            int made = 0;
+            int passes = 0;
+            while (passes < 2) {
+                int count = board.generateMoves(toMove, moves);
+                if (count > 0) {
+                    board.makeMove(moves[random.nextInt(count)], toMove);
+                    made++;
+                    passes = 0;
+                } else {
+                    passes++;
+                }
+                toMove = toMove.flip();
+            }
+            for (int i = 0; i < made; i++) {
+                board.unmakeMove();
+            }
+            moveCount += made;
+            nanos = System.nanoTime() - start;
+        } while (nanos < 1_000_000_000L);
+        return moveCount * 1e9 / nanos;
+    }
+
+    // total nodes and nanoseconds of the last of several rounds over the search positions
+    private static long[] search(int size, String name, int depth) {
+        List<Board> positions = new ArrayList<>();
+        Random random = new Random(2);
+        int[] moves = new int[size * size];
+        for (int p = 0; p < SEARCH_POSITIONS; p++) {
+            Board board = create(size, name);
+            Piece toMove = Piece.BLACK;
+            for (int ply = 0; ply < size * size / 4 && !board.isOver(); ply++) {
+                int count = board.generateMoves(toMove, moves);
+                if (count > 0) board.makeMove(moves[random.nextInt(count)], toMove);
+                toMove = toMove.flip();
+            }
+            positions.add(board);
+        }
+
+        // no transposition table, so every round searches the same tree
+        AIPlayer ai = new AIPlayer("AI", Piece.BLACK, depth, AIPlayer.Algorithm.ALPHABETA);
+        ai.setTranspositionTableSize(0);
+        long nodes;
+        long nanos;
+        long begin = System.nanoTime();
+        do {
+            nodes = 0;
+            long start = System.nanoTime();
+            for (Board board : positions) {
+                ai.searchBestMove(board, depth);
+                nodes += ai.getNodeCount();
+            }
+            nanos = System.nanoTime() - start;
+        } while (System.nanoTime() - begin < 1_000_000_000L);
+        return new long[]{nodes, nanos};
+    }
+}
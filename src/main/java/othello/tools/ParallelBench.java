@@ -0,0 +1,60 @@
+package othello.tools;
+
+import othello.AIPlayer;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Speedup of Algorithm.PARALLEL over sequential ALPHABETA on the benchmark positions,
+// checking that every search returns the same best-move value.
+// Usage: ParallelBench [depth] [threads...] (default depth 8, threads 1 2 4 8 16)
+public class ParallelBench {
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int[] threadCounts = args.length > 1
+                ? Arrays.stream(args, 1, args.length).mapToInt(Integer::parseInt).toArray()
+                : new int[]{1, 2, 4, 8, 16};
+        List<BenchmarkPositions.Position> positions = BenchmarkPositions.all();
+
+        System.out.println("cores: " + Runtime.getRuntime().availableProcessors() + ", depth " + depth
+                + ", " + positions.size() + " positions");
+
+        int[] expected = new int[positions.size()];
+        long sequentialNanos = 0;
+        long sequentialNodes = 0;
+        for (int i = 0; i < positions.size(); i++) {
+            BenchmarkPositions.Position position = positions.get(i);
+            AIPlayer ai = new AIPlayer("AI", position.toMove(), depth, AIPlayer.Algorithm.ALPHABETA);
+            long start = System.nanoTime();
+            ai.searchBestMove(position.board(), depth);
+            sequentialNanos += System.nanoTime() - start;
+            sequentialNodes += ai.getNodeCount();
+            expected[i] = ai.getBestValue();
+        }
+        System.out.printf("%-10s %10s %14s %10s %10s%n", "threads", "ms", "nodes", "speedup", "values");
+        System.out.printf("%-10s %10d %14d %10s %10s%n", "sequential", sequentialNanos / 1_000_000, sequentialNodes, "1.00", "-");
+
+        for (int threads : threadCounts) {
+            long nanos = 0;
+            long nodes = 0;
+            int mismatches = 0;
+            for (int i = 0; i < positions.size(); i++) {
+                BenchmarkPositions.Position position = positions.get(i);
+                AIPlayer ai = new AIPlayer("AI", position.toMove(), depth, AIPlayer.Algorithm.PARALLEL);
+                ai.setThreads(threads);
+                long start = System.nanoTime();
+                ai.searchBestMove(position.board(), depth);
+                nanos += System.nanoTime() - start;
+                ai.close();
+                nodes += ai.getNodeCount();
+                if (ai.getBestValue() != expected[i]) {
+                    mismatches++;
+                    System.out.println("  value mismatch on " + position.name() + ": "
+                            + ai.getBestValue() + " vs " + expected[i]);
+                }
+            }
+            System.out.printf("%-10d %10d %14d %10.2f %10s%n", threads, nanos / 1_000_000, nodes,
+                    (double) sequentialNanos / nanos, mismatches == 0 ? "same" : mismatches + " differ");
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package othello.tools;
+
+import othello.AIPlayer;
+import othello.BitBoard;
+import othello.PatternEvaluator;
+import othello.Piece;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+// Builds the pattern tables by self-play and least squares. Games start with a random number of
+// random plies, then an alpha-beta engine plays both sides and solves the last empties exactly,
+// so late positions are labelled with their true value and earlier ones with the final disc
+// difference of good play. Every position (and its 8 symmetries) is a sample; the tables of its
+// phase are fitted to the label by stochastic gradient descent in 1/SCALE disc units. The last
+// 5% of the games are held out to report the error on positions the fit has not seen.
+// Better tables make better games: -engine lets the self-play engine use earlier tables.
+// Usage: PatternTrainer [options] [output] (default src/main/resources/othello/patterns.bin)
+//   -games N     self-play games (default 20000)
+//   -depth N     search depth of the self-play engine (default 4)
+//   -engine FILE pattern tables of the self-play engine (default: square weights)
+//   -epochs N    passes over the positions (default 8)
+//   -rate R      initial step size (default 0.0003)
+public class PatternTrainer {
+    private static final int ENDGAME_EMPTIES = 12;
+    private static final int MAX_RANDOM_PLIES = 24;
+
+    public static void main(String[] args) throws Exception {
+        int games = 20000;
+        int depth = 4;
+        int epochs = 8;
+        float rate = 0.0003f;
+        PatternEvaluator engine = null;
+        Path output = Path.of("src/main/resources/othello/patterns.bin");
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-games" -> games = Integer.parseInt(args[++i]);
+                case "-depth" -> depth = Integer.parseInt(args[++i]);
+                case "-epochs" -> epochs = Integer.parseInt(args[++i]);
+                case "-rate" -> rate = Float.parseFloat(args[++i]);
+                case "-engine" -> {
+                    try (InputStream in = Files.newInputStream(Path.of(args[++i]))) {
+                        engine = PatternEvaluator.read(in);
+                    }
+                }
+                default -> output = Path.of(args[i]);
+            }
+        }
+
+        long start = System.nanoTime();
+        long[] black = new long[games * 60];
+        long[] white = new long[games * 60];
+        int[] labels = new int[games * 60];
+        int[] gameStarts = new int[games + 1];
+        int samples = playGames(games, depth, engine, black, white, labels, gameStarts);
+        System.out.printf("%d games, %d positions in %.1f s%n", games, samples, (System.nanoTime() - start) / 1e9);
+
+        start = System.nanoTime();
+        int holdout = gameStarts[games - games / 20];
+        PatternEvaluator evaluator = train(black, white, labels, holdout, samples, epochs, rate);
+        System.out.printf("trained in %.1f s%n", (System.nanoTime() - start) / 1e9);
+
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        try (OutputStream out = Files.newOutputStream(output)) {
+            evaluator.write(out);
+        }
+        System.out.println("wrote " + output + " (" + Files.size(output) + " bytes)");
+    }
+
+    // positions of all games and their final black-minus-white disc count; returns the number stored
+    private static int playGames(int games, int depth, PatternEvaluator engine, long[] black, long[] white,
+                                 int[] labels, int[] gameStarts) {
+        AIPlayer blackPlayer = player(Piece.BLACK, depth, engine);
+        AIPlayer whitePlayer = player(Piece.WHITE, depth, engine);
+        Random random = new Random(1);
+        int[] moves = new int[64];
+        int count = 0;
+        for (int g = 0; g < games; g++) {
+            gameStarts[g] = count;
+            BitBoard board = BenchmarkPositions.startPosition();
+            Piece toMove = Piece.BLACK;
+            int randomPlies = random.nextInt(MAX_RANDOM_PLIES + 1);
+            for (int ply = 0; !board.isOver(); ply++) {
+                int n = board.generateMoves(toMove, moves);
+                if (n > 0) {
+                    int move;
+                    if (ply < randomPlies) {
+                        move = moves[random.nextInt(n)];
+                    } else {
+                        int[] best = (toMove == Piece.BLACK ? blackPlayer : whitePlayer).calculateBestMove(board);
+                        move = best[0] * BitBoard.SIZE + best[1];
+                    }
+                    board.makeMove(move, toMove);
+                    black[count] = board.getBits(Piece.BLACK);
+                    white[count] = board.getBits(Piece.WHITE);
+                    count++;
+                }
+                toMove = toMove.flip();
+            }
+            int diff = board.countPieces(Piece.BLACK) - board.countPieces(Piece.WHITE);
+            int empties = board.countPieces(null);
+            int result = diff > 0 ? diff + empties : diff < 0 ? diff - empties : 0;
+            for (int i = gameStarts[g]; i < count; i++) {
+                labels[i] = result;
+            }
+            if ((g + 1) % 1000 == 0) {
+                System.out.println("  " + (g + 1) + " games");
+            }
+        }
+        gameStarts[games] = count;
+        return count;
+    }
+
+    private static AIPlayer player(Piece piece, int depth, PatternEvaluator engine) {
+        AIPlayer player = new AIPlayer("Trainer", piece, depth, AIPlayer.Algorithm.ALPHABETA);
+        player.setEndgameSolver(ENDGAME_EMPTIES, false);
+        player.setThreads(1);
+        player.setPatternEvaluator(engine);
+        return player;
+    }
+
+    // fits on samples [0, holdout), reports the error on both parts after every epoch
+    private static PatternEvaluator train(long[] black, long[] white, int[] labels, int holdout, int samples,
+                                          int epochs, float initialRate) {
+        int phases = PatternEvaluator.PHASES;
+        int families = PatternEvaluator.FAMILIES;
+        float[][][] tables = new float[phases][families][];
+        float[] mobility = new float[phases];
+        for (int p = 0; p < phases; p++) {
+            for (int f = 0; f < families; f++) {
+                tables[p][f] = new float[PatternEvaluator.tableSize(f)];
+            }
+        }
+
+        int instances = PatternEvaluator.instanceCount();
+        int[] indices = new int[instances];
+        int[] order = new int[holdout];
+        for (int i = 0; i < holdout; i++) order[i] = i;
+        Random random = new Random(2);
+        for (int epoch = 0; epoch < epochs; epoch++) {
+            // shuffle, and decay the step towards the end
+            for (int i = holdout - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int t = order[i];
+                order[i] = order[j];
+                order[j] = t;
+            }
+            float rate = initialRate * (1 - 0.7f * epoch / Math.max(1, epochs - 1));
+            for (int i = 0; i < holdout; i++) {
+                int s = order[i];
+                int phase = PatternEvaluator.phase(64 - Long.bitCount(black[s] | white[s]));
+                float target = labels[s] * PatternEvaluator.SCALE;
+                for (int symmetry = 0; symmetry < 8; symmetry++) {
+                    long b = transform(black[s], symmetry);
+                    long w = transform(white[s], symmetry);
+                    int moves = mobility(b, w);
+                    float error = target - predict(tables[phase], mobility[phase], b, w, moves, indices);
+                    float step = rate * error;
+                    for (int n = 0; n < instances; n++) {
+                        tables[phase][PatternEvaluator.instanceFamily(n)][indices[n]] += step;
+                    }
+                    mobility[phase] += step * moves * 0.01f;
+                }
+            }
+            System.out.printf("  epoch %d: rms error %.2f discs, held out %.2f discs%n", epoch + 1,
+                    rmsError(tables, mobility, black, white, labels, 0, holdout, indices),
+                    rmsError(tables, mobility, black, white, labels, holdout, samples, indices));
+        }
+
+        short[][][] result = new short[phases][families][];
+        short[] mobilityWeights = new short[phases];
+        for (int p = 0; p < phases; p++) {
+            mobilityWeights[p] = clamp(mobility[p]);
+            for (int f = 0; f < families; f++) {
+                result[p][f] = new short[tables[p][f].length];
+                for (int i = 0; i < result[p][f].length; i++) {
+                    result[p][f][i] = clamp(tables[p][f][i]);
+                }
+            }
+        }
+        return new PatternEvaluator(result, mobilityWeights);
+    }
+
+    // black's score; leaves the instance indices of the position in 'indices'
+    private static float predict(float[][] tables, float mobilityWeight, long black, long white, int moves,
+                                 int[] indices) {
+        PatternEvaluator.computeIndices(black, white, indices);
+        float score = mobilityWeight * moves;
+        for (int n = 0; n < indices.length; n++) {
+            score += tables[PatternEvaluator.instanceFamily(n)][indices[n]];
+        }
+        return score;
+    }
+
+    private static double rmsError(float[][][] tables, float[] mobility, long[] black, long[] white, int[] labels,
+                                   int from, int to, int[] indices) {
+        double sum = 0;
+        for (int s = from; s < to; s++) {
+            int phase = PatternEvaluator.phase(64 - Long.bitCount(black[s] | white[s]));
+            float predicted = predict(tables[phase], mobility[phase], black[s], white[s], mobility(black[s], white[s]),
+                    indices);
+            double error = (labels[s] * PatternEvaluator.SCALE - predicted) / PatternEvaluator.SCALE;
+            sum += error * error;
+        }
+        return Math.sqrt(sum / Math.max(1, to - from));
+    }
+
+    private static int mobility(long black, long white) {
+        return Long.bitCount(BitBoard.legalMoves(black, white)) - Long.bitCount(BitBoard.legalMoves(white, black));
+    }
+
+    private static short clamp(float value) {
+        return (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, Math.round(value)));
+    }
+
+    // the same symmetries as the pattern instances: optional transpose, then row/column mirror
+    private static long transform(long bits, int symmetry) {
+        if ((symmetry & 1) != 0) bits = transpose(bits);
+        if ((symmetry & 2) != 0) bits = Long.reverseBytes(bits);
+        if ((symmetry & 4) != 0) bits = mirrorColumns(bits);
+        return bits;
+    }
+
+    private static long transpose(long x) {
+        long t;
+        t = (x ^ (x >>> 7)) & 0x00AA00AA00AA00AAL;
+        x ^= t ^ (t << 7);
+        t = (x ^ (x >>> 14)) & 0x0000CCCC0000CCCCL;
+        x ^= t ^ (t << 14);
+        t = (x ^ (x >>> 28)) & 0x00000000F0F0F0F0L;
+        x ^= t ^ (t << 28);
+        return x;
+    }
+
+    private static long mirrorColumns(long x) {
+        x = ((x >>> 1) & 0x5555555555555555L) | ((x & 0x5555555555555555L) << 1);
+        x = ((x >>> 2) & 0x3333333333333333L) | ((x & 0x3333333333333333L) << 2);
+        x = ((x >>> 4) & 0x0F0F0F0F0F0F0F0FL) | ((x & 0x0F0F0F0F0F0F0F0FL) << 4);
+        return x;
+    }
+}
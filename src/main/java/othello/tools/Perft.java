@@ -0,0 +1,178 @@
+package othello.tools;
+
+import othello.Board;
+import othello.Piece;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Counts the leaf nodes of the game tree from the start position and checks them against the
+// known Othello perft numbers. A side without a move passes (the pass is one ply); a position
+// where neither side can move is a leaf at any depth.
+// Usage: Perft [depth] [threads] [bitboard|board|place] (default 9 1 bitboard)
+//   bitboard: BitBoard.generateMoves + makeMove/unmakeMove
+//   board:    the Piece[][] Board with generateMoves + makeMove/unmakeMove
+//   place:    the Piece[][] Board with canPlacePiece on every cell + cloneBoard/placePiece
+// Exits with status 1 if a count is wrong.
+public class Perft {
+    static final long[] KNOWN = {
+            1L, 4L, 12L, 56L, 244L, 1396L, 8200L, 55092L, 390216L, 3005288L, 24571284L,
+            212258800L, 1939886636L, 18429641748L, 184042084512L
+    };
+
+    public static void main(String[] args) throws Exception {
+        int maxDepth = args.length > 0 ? Integer.parseInt(args[0]) : 9;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        String mode = args.length > 2 ? args[2] : "bitboard";
+        if (!mode.equals("bitboard") && !mode.equals("board") && !mode.equals("place")) {
+            throw new IllegalArgumentException("unknown mode: " + mode);
+        }
+
+        System.out.println("mode " + mode + ", " + threads + " thread(s)");
+        System.out.printf("%-6s %14s %14s %10s %14s%n", "depth", "nodes", "expected", "ms", "nodes/s");
+        boolean ok = true;
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int depth = 1; depth <= maxDepth; depth++) {
+                Board start = startBoard(mode);
+                long begin = System.nanoTime();
+                long nodes = threads > 1
+                        ? parallelPerft(executor, threads, start, Piece.BLACK, depth, mode)
+                        : perft(start, Piece.BLACK, depth, mode);
+                long nanos = System.nanoTime() - begin;
+
+                String expected = depth < KNOWN.length ? Long.toString(KNOWN[depth]) : "?";
+                boolean match = depth >= KNOWN.length || nodes == KNOWN[depth];
+                ok &= match;
+                System.out.printf("%-6d %14d %14s %10d %14.0f%s%n", depth, nodes, expected,
+                        nanos / 1_000_000, nodes * 1e9 / Math.max(nanos, 1), match ? "" : "  WRONG");
+            }
+        }
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+
+    private static Board startBoard(String mode) {
+        Board start = BenchmarkPositions.startPosition();
+        if (mode.equals("bitboard")) {
+            return start;
+        }
+        Board board = new Board(8, 8);
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 8; c++) {
+                board.setPiece(r, c, start.getPiece(r, c));
+            }
+        }
+        return board;
+    }
+
+    static long perft(Board board, Piece toMove, int depth, String mode) {
+        return mode.equals("place")
+                ? perftPlace(board, toMove, depth, false)
+                : perftMake(board, toMove, depth, new int[depth + 1][64], false);
+    }
+
+    private static long perftMake(Board board, Piece toMove, int depth, int[][] buffers, boolean passed) {
+        if (depth == 0) return 1;
+        int[] moves = buffers[depth];
+        int count = board.generateMoves(toMove, moves);
+        if (count == 0) {
+            // two passes in a row: the game is over
+            return passed ? 1 : perftMake(board, toMove.flip(), depth - 1, buffers, true);
+        }
+        if (depth == 1) return count;
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            board.makeMove(moves[i], toMove);
+            nodes += perftMake(board, toMove.flip(), depth - 1, buffers, false);
+            board.unmakeMove();
+        }
+        return nodes;
+    }
+
+    // only the original board API, to validate canPlacePiece/placePiece themselves
+    private static long perftPlace(Board board, Piece toMove, int depth, boolean passed) {
+        if (depth == 0) return 1;
+        long nodes = 0;
+        boolean moved = false;
+        for (int r = 0; r < board.getRows(); r++) {
+            for (int c = 0; c < board.getColumns(); c++) {
+                if (board.canPlacePiece(r, c, toMove)) {
+                    moved = true;
+                    Board child = board.cloneBoard();
+                    child.placePiece(r, c, toMove);
+                    nodes += perftPlace(child, toMove.flip(), depth - 1, false);
+                }
+            }
+        }
+        if (!moved) {
+            return passed ? 1 : perftPlace(board, toMove.flip(), depth - 1, true);
+        }
+        return nodes;
+    }
+
+    // expands the tree until there are enough subtrees to keep every thread busy, then counts
+    // each subtree on its own copy of the board
+    private static long parallelPerft(ExecutorService executor, int threads, Board start, Piece toMove,
+                                      int depth, String mode) throws Exception {
+        List<Split> frontier = new ArrayList<>();
+        frontier.add(new Split(start, toMove, depth, false));
+        long nodes = 0;
+        while (frontier.size() < threads * 8) {
+            List<Split> next = new ArrayList<>();
+            boolean expanded = false;
+            for (Split split : frontier) {
+                if (split.depth == 0) {
+                    nodes++;
+                    continue;
+                }
+                List<Split> children = split.expand();
+                if (children.isEmpty()) {
+                    nodes++; // game over
+                } else {
+                    next.addAll(children);
+                    expanded = true;
+                }
+            }
+            frontier = next;
+            if (!expanded) break;
+        }
+
+        List<Future<Long>> results = new ArrayList<>();
+        for (Split split : frontier) {
+            results.add(executor.submit(() -> split.count(mode)));
+        }
+        for (Future<Long> result : results) {
+            nodes += result.get();
+        }
+        return nodes;
+    }
+
+    // a subtree: the position, the side to move, the plies left and whether the last ply was a pass
+    private record Split(Board board, Piece toMove, int depth, boolean passed) {
+        List<Split> expand() {
+            List<Split> children = new ArrayList<>();
+            int[] moves = new int[board.getRows() * board.getColumns()];
+            int count = board.generateMoves(toMove, moves);
+            if (count == 0) {
+                if (!passed) children.add(new Split(board, toMove.flip(), depth - 1, true));
+                return children;
+            }
+            for (int i = 0; i < count; i++) {
+                Board child = board.cloneBoard();
+                child.makeMove(moves[i], toMove);
+                children.add(new Split(child, toMove.flip(), depth - 1, false));
+            }
+            return children;
+        }
+
+        long count(String mode) {
+            return mode.equals("place")
+                    ? perftPlace(board, toMove, depth, passed)
+                    : perftMake(board, toMove, depth, new int[depth + 1][64], passed);
+        }
+    }
+}
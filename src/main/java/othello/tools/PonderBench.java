@@ -0,0 +1,78 @@
+package othello.tools;
+
+import othello.AIPlayer;
+import othello.BitBoard;
+import othello.EngineService;
+import othello.Piece;
+import othello.Ponderer;
+import othello.SearchStats;
+
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+// AI response time with and without pondering, as the game controller sees it: the time from the
+// opponent's move until the AI's move is ready. The opponent stands in for a human: it plays the
+// depth-2 best move (or, 1 time in 4, a random move) after thinking for a fixed time.
+// Usage: PonderBench [depth] [opponentThinkMs] [games] (default 6 1000 2)
+public class PonderBench {
+    public static void main(String[] args) throws Exception {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+        long thinkMs = args.length > 1 ? Long.parseLong(args[1]) : 1000;
+        int games = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+
+        try (EngineService engine = new EngineService()) {
+            for (boolean pondering : new boolean[]{false, true}) {
+                long totalNanos = 0;
+                long worstNanos = 0;
+                int moves = 0;
+                Ponderer ponderer = new Ponderer(engine);
+                for (int g = 0; g < games; g++) {
+                    Random random = new Random(g);
+                    AIPlayer ai = new AIPlayer("AI", Piece.WHITE, depth, AIPlayer.Algorithm.ALPHABETA);
+                    AIPlayer opponent = new AIPlayer("Human", Piece.BLACK, 2, AIPlayer.Algorithm.ALPHABETA);
+                    BitBoard board = BenchmarkPositions.startPosition();
+                    int[] buffer = new int[64];
+                    while (!board.isOver()) {
+                        // the opponent's turn, while the AI ponders
+                        CompletableFuture<SearchStats> pondered = null;
+                        int count = board.generateMoves(Piece.BLACK, buffer);
+                        if (count > 0) {
+                            Thread.sleep(thinkMs);
+                            int move = random.nextInt(4) == 0
+                                    ? buffer[random.nextInt(count)]
+                                    : toSquare(opponent.calculateBestMove(board));
+                            board.makeMove(move, Piece.BLACK);
+                            pondered = ponderer.take(board, move);
+                        }
+                        if (board.countMoves(Piece.WHITE) == 0) {
+                            if (pondered != null) pondered.cancel(false);
+                            continue;
+                        }
+
+                        // the AI's turn: how long until its move is ready
+                        long start = System.nanoTime();
+                        SearchStats stats = (pondered != null ? pondered : engine.search(ai, board, null)).get();
+                        long nanos = System.nanoTime() - start;
+                        totalNanos += nanos;
+                        worstNanos = Math.max(worstNanos, nanos);
+                        moves++;
+
+                        board.makeMove(toSquare(stats.move()), Piece.WHITE);
+                        if (pondering && !board.isOver()) {
+                            ponderer.start(ai, board, stats, null);
+                        }
+                    }
+                    ponderer.cancel();
+                }
+                long tries = ponderer.getHits() + ponderer.getMisses();
+                System.out.printf("pondering %-5s: %d AI moves, mean %.1f ms, worst %.1f ms, hits %d/%d%n",
+                        pondering ? "on" : "off", moves, totalNanos / 1e6 / Math.max(moves, 1), worstNanos / 1e6,
+                        ponderer.getHits(), tries);
+            }
+        }
+    }
+
+    private static int toSquare(int[] move) {
+        return move[0] * BitBoard.SIZE + move[1];
+    }
+}
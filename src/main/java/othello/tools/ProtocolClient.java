@@ -0,0 +1,220 @@
+package othello.tools;
+
+import othello.EngineService;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Drives an engine over the text protocol and measures it: round-trip latency of "ping",
+// throughput of pipelined commands, and the time per "genmove" over whole games. Connects to a
+// running EngineServer (-connect HOST:PORT), starts one in a child process and talks over its
+// standard input/output (-stdio), or by default serves TCP on loopback inside this process.
+// Finally checks for every algorithm that "stop" ends a deep "go" with a move.
+// Usage: ProtocolClient [-connect HOST:PORT | -stdio] [-pings N] [-pipelined N] [-games N] [-depth N]
+public class ProtocolClient {
+    public static void main(String[] args) throws Exception {
+        String connect = null;
+        boolean stdio = false;
+        int pings = 10_000;
+        int pipelined = 100_000;
+        int games = 4;
+        int depth = 4;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-connect" -> connect = args[++i];
+                case "-stdio" -> stdio = true;
+                case "-pings" -> pings = Integer.parseInt(args[++i]);
+                case "-pipelined" -> pipelined = Integer.parseInt(args[++i]);
+                case "-games" -> games = Integer.parseInt(args[++i]);
+                case "-depth" -> depth = Integer.parseInt(args[++i]);
+                default -> {
+                    System.err.println("usage: ProtocolClient [-connect HOST:PORT | -stdio] [-pings N]"
+                            + " [-pipelined N] [-games N] [-depth N]");
+                    return;
+                }
+            }
+        }
+
+        if (stdio) {
+            String java = ProcessHandle.current().info().command().orElse("java");
+            Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                    EngineServer.class.getName())
+                    .redirectError(ProcessBuilder.Redirect.INHERIT).start();
+            try {
+                run("stdio", process.getInputStream(), process.getOutputStream(), pings, pipelined, games, depth);
+            } finally {
+                process.destroy();
+            }
+        } else if (connect != null) {
+            int colon = connect.lastIndexOf(':');
+            try (Socket socket = new Socket(connect.substring(0, colon),
+                    Integer.parseInt(connect.substring(colon + 1)))) {
+                socket.setTcpNoDelay(true);
+                run("tcp " + connect, socket.getInputStream(), socket.getOutputStream(), pings, pipelined, games, depth);
+            }
+        } else {
+            try (EngineService engine = new EngineService();
+                 ServerSocket server = new ServerSocket(0, 128, InetAddress.getLoopbackAddress())) {
+                Thread.ofVirtual().start(() -> EngineServer.listen(engine, server));
+                try (Socket socket = new Socket(server.getInetAddress(), server.getLocalPort())) {
+                    socket.setTcpNoDelay(true);
+                    run("tcp loopback", socket.getInputStream(), socket.getOutputStream(), pings, pipelined, games,
+                            depth);
+                }
+            }
+        }
+    }
+
+    private static void run(String transport, InputStream input, OutputStream output, int pings, int pipelined,
+                            int games, int depth) throws IOException {
+        Connection connection = new Connection(input, output);
+        System.out.println(transport + ": " + connection.expect("name") + ", protocol "
+                + connection.expect("protocol_version"));
+
+        // warm up the server's code paths before timing anything
+        for (int i = 0; i < 2000; i++) {
+            connection.send("ping");
+        }
+
+        long[] latencies = new long[pings];
+        for (int i = 0; i < pings; i++) {
+            long start = System.nanoTime();
+            connection.send("ping");
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        System.out.printf("ping: %d round trips, p50 %.1f us, p99 %.1f us, max %.1f us%n", pings,
+                percentile(latencies, 0.50) / 1e3, percentile(latencies, 0.99) / 1e3,
+                latencies[pings - 1] / 1e3);
+
+        // pipelined: keep up to 'batch' commands outstanding, with ids to check the pairing
+        int batch = 256;
+        long start = System.nanoTime();
+        for (int sent = 0; sent < pipelined; sent += batch) {
+            int n = Math.min(batch, pipelined - sent);
+            for (int i = 0; i < n; i++) {
+                connection.write((sent + i) + (i % 2 == 0 ? " ping" : " legal"));
+            }
+            connection.flush();
+            for (int i = 0; i < n; i++) {
+                String response = connection.read();
+                if (!response.startsWith("=" + (sent + i) + " ")) {
+                    throw new IOException("unexpected response to " + (sent + i) + ": " + response);
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("pipelined: %d commands (ping, legal) in %.2f s: %.0f commands/s%n", pipelined,
+                elapsed / 1e9, pipelined * 1e9 / elapsed);
+
+        // whole games, the engine playing both sides
+        connection.expect("set depth " + depth);
+        long[] moveTimes = new long[games * 128];
+        int moves = 0;
+        start = System.nanoTime();
+        for (int game = 0; game < games; game++) {
+            connection.expect("newgame");
+            int passes = 0;
+            while (passes < 2) {
+                long moveStart = System.nanoTime();
+                String move = connection.expect("genmove");
+                if (moves < moveTimes.length) moveTimes[moves] = System.nanoTime() - moveStart;
+                moves++;
+                passes = move.equals("pass") ? passes + 1 : 0;
+            }
+        }
+        elapsed = System.nanoTime() - start;
+        long[] measured = Arrays.copyOf(moveTimes, Math.min(moves, moveTimes.length));
+        Arrays.sort(measured);
+        System.out.printf("games: %d at depth %d, %d genmove in %.2f s: %.0f moves/s, p50 %.2f ms, p99 %.2f ms%n",
+                games, depth, moves, elapsed / 1e9, moves * 1e9 / elapsed,
+                percentile(measured, 0.50) / 1e6, percentile(measured, 0.99) / 1e6);
+
+        // stop a search that cannot finish: the go still answers with the best move so far
+        connection.expect("newgame");
+        connection.expect("set depth 30");
+        for (String algorithm : new String[]{"minimax", "alphabeta", "pvs", "parallel"}) {
+            connection.expect("set algorithm " + algorithm);
+            connection.write("1 go");
+            connection.flush();
+            sleep(1000);
+            connection.write("2 stop");
+            connection.flush();
+            String stopped = connection.read();
+            String answer = connection.read();
+            if (!stopped.startsWith("=2") || !answer.startsWith("=1 ") || answer.startsWith("=1 pass")) {
+                throw new IOException(algorithm + ": stop did not return a move: " + stopped + " / " + answer);
+            }
+            System.out.println("stop " + algorithm + ": " + answer.substring(3));
+        }
+        connection.expect("quit");
+    }
+
+    private static void sleep(long millis) throws IOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted", e);
+        }
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted.length == 0 ? 0 : sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))];
+    }
+
+    // one client end of the protocol: a response is every line up to the empty one
+    private static class Connection {
+        private final BufferedReader in;
+        private final Writer out;
+
+        Connection(InputStream input, OutputStream output) {
+            in = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+            out = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 1 << 16);
+        }
+
+        void write(String command) throws IOException {
+            out.write(command);
+            out.write('\n');
+        }
+
+        void flush() throws IOException {
+            out.flush();
+        }
+
+        String read() throws IOException {
+            StringBuilder response = new StringBuilder();
+            String line;
+            while ((line = in.readLine()) != null && !line.isEmpty()) {
+                if (!response.isEmpty()) response.append('\n');
+                response.append(line);
+            }
+            if (line == null) throw new IOException("connection closed");
+            return response.toString();
+        }
+
+        String send(String command) throws IOException {
+            write(command);
+            flush();
+            return read();
+        }
+
+        // the text of a successful response
+        String expect(String command) throws IOException {
+            String response = send(command);
+            if (!response.startsWith("=")) throw new IOException(command + ": " + response);
+            return response.length() > 2 ? response.substring(2) : "";
+        }
+    }
+}
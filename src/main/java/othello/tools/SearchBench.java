@@ -0,0 +1,113 @@
+package othello.tools;
+
+import othello.AIPlayer;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Search reports on the benchmark positions.
+// Usage: SearchBench [tt|ordering|pvs] [depths...]
+//   tt       alpha-beta with and without the transposition table (default depths 4 6 8)
+//   ordering alpha-beta with and without move ordering, both using the table (default depths 4 6 8)
+//   pvs      alpha-beta against PVS with the full window and with aspiration windows (default depths 4 6 8)
+public class SearchBench {
+    public static void main(String[] args) {
+        String mode = args.length > 0 ? args[0] : "tt";
+        int[] depths = args.length > 1 ? parseDepths(Arrays.copyOfRange(args, 1, args.length)) : new int[]{4, 6, 8};
+        List<BenchmarkPositions.Position> positions = BenchmarkPositions.all();
+
+        switch (mode) {
+            case "tt" -> compareTranspositionTable(positions, depths);
+            case "ordering" -> compareMoveOrdering(positions, depths);
+            case "pvs" -> comparePvs(positions, depths);
+            default -> System.out.println("Unknown mode: " + mode);
+        }
+    }
+
+    private static void compareTranspositionTable(List<BenchmarkPositions.Position> positions, int[] depths) {
+        System.out.printf("%-6s %14s %14s %10s %10s %12s %12s%n",
+                "depth", "nodes (no TT)", "nodes (TT)", "reduction", "hit rate", "ms (no TT)", "ms (TT)");
+        for (int depth : depths) {
+            long plainNodes = 0, ttNodes = 0, probes = 0, hits = 0;
+            long plainTime = 0, ttTime = 0;
+            for (BenchmarkPositions.Position position : positions) {
+                AIPlayer plain = new AIPlayer("AI", position.toMove(), depth, AIPlayer.Algorithm.ALPHABETA);
+                plain.setTranspositionTableSize(0);
+                long start = System.nanoTime();
+                plain.searchBestMove(position.board(), depth);
+                plainTime += System.nanoTime() - start;
+                plainNodes += plain.getNodeCount();
+
+                AIPlayer hashed = new AIPlayer("AI", position.toMove(), depth, AIPlayer.Algorithm.ALPHABETA);
+                start = System.nanoTime();
+                hashed.searchBestMove(position.board(), depth);
+                ttTime += System.nanoTime() - start;
+                ttNodes += hashed.getNodeCount();
+                probes += hashed.getTranspositionTable().getProbes();
+                hits += hashed.getTranspositionTable().getHits();
+            }
+            System.out.printf("%-6d %14d %14d %9.1f%% %9.1f%% %12d %12d%n",
+                    depth, plainNodes, ttNodes, 100.0 * (plainNodes - ttNodes) / plainNodes,
+                    probes == 0 ? 0 : 100.0 * hits / probes, plainTime / 1_000_000, ttTime / 1_000_000);
+        }
+    }
+
+    private static void compareMoveOrdering(List<BenchmarkPositions.Position> positions, int[] depths) {
+        System.out.printf("%-6s %14s %14s %10s %14s %14s %12s %12s%n",
+                "depth", "nodes (scan)", "nodes (sorted)", "reduction",
+                "1st cut (scan)", "1st cut (sort)", "ms (scan)", "ms (sorted)");
+        for (int depth : depths) {
+            long[] nodes = new long[2], cutoffs = new long[2], firstCutoffs = new long[2], time = new long[2];
+            for (BenchmarkPositions.Position position : positions) {
+                for (int sorted = 0; sorted < 2; sorted++) {
+                    AIPlayer ai = new AIPlayer("AI", position.toMove(), depth, AIPlayer.Algorithm.ALPHABETA);
+                    ai.setMoveOrdering(sorted == 1);
+                    long start = System.nanoTime();
+                    ai.searchBestMove(position.board(), depth);
+                    time[sorted] += System.nanoTime() - start;
+                    nodes[sorted] += ai.getNodeCount();
+                    cutoffs[sorted] += ai.getCutoffs();
+                    firstCutoffs[sorted] += ai.getFirstMoveCutoffs();
+                }
+            }
+            System.out.printf("%-6d %14d %14d %9.1f%% %13.1f%% %13.1f%% %12d %12d%n",
+                    depth, nodes[0], nodes[1], 100.0 * (nodes[0] - nodes[1]) / nodes[0],
+                    100.0 * firstCutoffs[0] / cutoffs[0], 100.0 * firstCutoffs[1] / cutoffs[1],
+                    time[0] / 1_000_000, time[1] / 1_000_000);
+        }
+    }
+
+    // PVS deepens iteratively even at a fixed depth, so its counts include the shallower iterations
+    private static void comparePvs(List<BenchmarkPositions.Position> positions, int[] depths) {
+        System.out.printf("%-6s %14s %14s %14s %10s %10s %10s %10s %10s%n",
+                "depth", "nodes (AB)", "nodes (PVS)", "nodes (asp)", "reduction", "re-search",
+                "ms (AB)", "ms (PVS)", "ms (asp)");
+        for (int depth : depths) {
+            long[] nodes = new long[3], time = new long[3];
+            long researches = 0;
+            for (BenchmarkPositions.Position position : positions) {
+                for (int run = 0; run < 3; run++) {
+                    AIPlayer ai = new AIPlayer("AI", position.toMove(), depth,
+                            run == 0 ? AIPlayer.Algorithm.ALPHABETA : AIPlayer.Algorithm.PVS);
+                    if (run == 1) ai.setAspirationWindow(0);
+                    long start = System.nanoTime();
+                    ai.searchBestMove(position.board(), depth);
+                    time[run] += System.nanoTime() - start;
+                    nodes[run] += ai.getNodeCount();
+                    if (run == 2) researches += ai.getResearches();
+                }
+            }
+            System.out.printf("%-6d %14d %14d %14d %9.1f%% %10d %10d %10d %10d%n",
+                    depth, nodes[0], nodes[1], nodes[2], 100.0 * (nodes[0] - nodes[2]) / nodes[0], researches,
+                    time[0] / 1_000_000, time[1] / 1_000_000, time[2] / 1_000_000);
+        }
+    }
+
+    private static int[] parseDepths(String[] args) {
+        int[] depths = new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            depths[i] = Integer.parseInt(args[i]);
+        }
+        return depths;
+    }
+}
@@ -0,0 +1,177 @@
+package othello.tools;
+
+import othello.GameServer;
+import othello.GameState;
+import othello.PatternEvaluator;
+import othello.Piece;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Load generator for GameServer: simulated humans play random legal moves in many games at once,
+// each thinking a random time (0 to twice -think) before every move, and start a new game
+// (alternating colors) when one ends. Measures the memory of idle sessions, then runs for
+// -seconds and reports AI moves/s and the latency of a reply (human move to AI answer, waiting
+// for a worker included). -deep K gives the first K sessions a thousand times the clock, to see
+// whether greedy sessions slow down the others.
+// Usage: ServerLoad [-sessions N] [-workers N] [-seconds S] [-think MS] [-move MS] [-clock MS]
+//                   [-size N] [-patterns] [-deep K]
+public class ServerLoad {
+    private static final long[] NO_SAMPLES = new long[0];
+
+    private final GameServer server;
+    private final ScheduledExecutorService humans = Executors.newSingleThreadScheduledExecutor();
+    private final Random random = new Random(1);
+    private final int size;
+    private final long thinkMs;
+    private final AtomicLong humanMoves = new AtomicLong();
+    private final AtomicLong games = new AtomicLong();
+    private long[] latencies = NO_SAMPLES;
+    private long[] waits = NO_SAMPLES;
+    private int samples;
+    private volatile boolean measuring;
+
+    private ServerLoad(GameServer server, int size, long thinkMs) {
+        this.server = server;
+        this.size = size;
+        this.thinkMs = thinkMs;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int sessions = 2000;
+        int workers = Runtime.getRuntime().availableProcessors();
+        int seconds = 20;
+        long thinkMs = 1000;
+        long moveMs = 20;
+        long clockMs = 600;
+        int size = 8;
+        boolean patterns = false;
+        int deep = 0;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-sessions" -> sessions = Integer.parseInt(args[++i]);
+                case "-workers" -> workers = Integer.parseInt(args[++i]);
+                case "-seconds" -> seconds = Integer.parseInt(args[++i]);
+                case "-think" -> thinkMs = Long.parseLong(args[++i]);
+                case "-move" -> moveMs = Long.parseLong(args[++i]);
+                case "-clock" -> clockMs = Long.parseLong(args[++i]);
+                case "-size" -> size = Integer.parseInt(args[++i]);
+                case "-patterns" -> patterns = true;
+                case "-deep" -> deep = Integer.parseInt(args[++i]);
+                default -> {
+                    System.err.println("usage: ServerLoad [-sessions N] [-workers N] [-seconds S] [-think MS]"
+                            + " [-move MS] [-clock MS] [-size N] [-patterns] [-deep K]");
+                    return;
+                }
+            }
+        }
+
+        try (GameServer server = new GameServer(workers)) {
+            server.setMaxMoveTime(moveMs);
+            if (patterns) server.setPatternEvaluator(PatternEvaluator.standard());
+            ServerLoad load = new ServerLoad(server, size, thinkMs);
+
+            Runtime runtime = Runtime.getRuntime();
+            long before = usedMemory(runtime);
+            GameServer.Session[] opened = new GameServer.Session[sessions];
+            for (int i = 0; i < sessions; i++) {
+                server.setClock(i < deep ? clockMs * 1000 : clockMs);
+                opened[i] = server.open(size, i % 2 == 0 ? Piece.BLACK : Piece.WHITE);
+            }
+            long after = usedMemory(runtime);
+            server.setClock(clockMs);
+            System.out.printf("%d idle %dx%d sessions: %.0f bytes each%n", sessions, size, size,
+                    (after - before) / (double) sessions);
+
+            for (GameServer.Session session : opened) {
+                load.schedule(session);
+            }
+            // the first seconds warm up the engines and spread the sessions over the game
+            Thread.sleep(Math.min(5000, seconds * 250L));
+            load.measuring = true;
+            long startMoves = server.getAIMoves();
+            long start = System.nanoTime();
+            Thread.sleep(seconds * 1000L);
+            long elapsed = System.nanoTime() - start;
+            load.measuring = false;
+            long aiMoves = server.getAIMoves() - startMoves;
+            load.humans.shutdownNow();
+            load.report(aiMoves, elapsed, workers, moveMs, clockMs);
+        }
+    }
+
+    private static long usedMemory(Runtime runtime) throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    // the human's next move after a random think time; at the start of a game as white, the AI's
+    private void schedule(GameServer.Session session) {
+        long delay;
+        synchronized (random) {
+            delay = thinkMs > 0 ? random.nextLong(2 * thinkMs) : 0;
+        }
+        humans.schedule(() -> move(session), delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void move(GameServer.Session session) {
+        GameState state = session.getState();
+        int square = -1;
+        if (state.toMove() == session.getHuman()) {
+            synchronized (random) {
+                square = state.moves()[random.nextInt(state.moves().length)];
+            }
+            if (measuring) humanMoves.incrementAndGet();
+        }
+        long submitted = System.nanoTime();
+        server.play(session, square).whenComplete((reply, error) -> {
+            if (error != null) {
+                error.printStackTrace();
+                return;
+            }
+            if (measuring) sample(System.nanoTime() - submitted, reply.waitNanos());
+            if (reply.state().over()) {
+                games.incrementAndGet();
+                server.close(session);
+                schedule(server.open(size, session.getHuman().flip()));
+            } else {
+                schedule(session);
+            }
+        });
+    }
+
+    private synchronized void sample(long latency, long wait) {
+        if (samples == latencies.length) {
+            latencies = Arrays.copyOf(latencies, Math.max(1024, samples * 2));
+            waits = Arrays.copyOf(waits, latencies.length);
+        }
+        latencies[samples] = latency;
+        waits[samples] = wait;
+        samples++;
+    }
+
+    private synchronized void report(long aiMoves, long elapsedNanos, int workers, long moveMs, long clockMs) {
+        long[] latency = Arrays.copyOf(latencies, samples);
+        long[] wait = Arrays.copyOf(waits, samples);
+        Arrays.sort(latency);
+        Arrays.sort(wait);
+        System.out.printf("%d sessions on %d workers, move time <= %d ms, clock %d ms per game%n",
+                server.getSessionCount(), workers, moveMs, clockMs);
+        System.out.printf("%d AI moves in %.1f s: %.0f moves/s (%d human moves, %d games finished)%n",
+                aiMoves, elapsedNanos / 1e9, aiMoves * 1e9 / elapsedNanos, humanMoves.get(), games.get());
+        System.out.printf("reply latency: p50 %.1f ms, p99 %.1f ms, max %.1f ms; waiting for a worker: p50 %.1f ms,"
+                        + " p99 %.1f ms%n", percentile(latency, 0.50) / 1e6, percentile(latency, 0.99) / 1e6,
+                percentile(latency, 1) / 1e6, percentile(wait, 0.50) / 1e6, percentile(wait, 0.99) / 1e6);
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted.length == 0 ? 0 : sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))];
+    }
+}
@@ -0,0 +1,30 @@
+package othello.ui;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// JFR event for one board update in OthelloView; its duration is the time spent in the renderer.
+@Name("othello.BoardRender")
+@Label("Board Render")
+@Category({"Othello", "UI"})
+@Description("One update of the board on screen")
+class BoardRenderEvent extends jdk.jfr.Event {
+    @Label("Renderer")
+    String renderer;
+
+    @Label("Kind")
+    @Description("all, squares, hints or scores")
+    String kind;
+
+    @Label("Squares")
+    @Description("squares passed to the renderer; for 'all', every square of the board")
+    int squares;
+
+    @Label("Cells Updated")
+    long cellUpdates;
+
+    @Label("Nodes Created")
+    long nodesCreated;
+}
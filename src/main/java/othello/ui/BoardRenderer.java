@@ -0,0 +1,36 @@
+package othello.ui;
+
+import othello.Board;
+import javafx.scene.Node;
+
+// Cach ve ban co len giao dien. drawSquares chi cham vao cac o duoc truyen vao (quan vua dat va
+// cac quan bi lat), drawAll chi cham vao cac o khac voi lan ve truoc.
+interface BoardRenderer {
+    interface CellListener {
+        void cellClicked(int row, int col);
+    }
+
+    Node getNode();
+
+    int getRows();
+
+    int getColumns();
+
+    void drawAll(Board board);
+
+    // squares: chi so o row * columns + col
+    void drawSquares(Board board, int[] squares);
+
+    // to mau goi y cho count o dau tien cua squares, xoa goi y cu
+    void showHints(int[] squares, int count);
+
+    // chu tren count o dau tien cua squares (vd: diem phan tich), xoa chu cu; count = 0 de xoa het
+    void showScores(int[] squares, String[] labels, int count);
+
+    void setDisabled(boolean disabled);
+
+    // so node JavaFX da tao va so lan ve lai mot o, tinh tu khi tao renderer
+    long getNodesCreated();
+
+    long getCellUpdates();
+}
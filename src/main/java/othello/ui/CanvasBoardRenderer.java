@@ -0,0 +1,200 @@
+package othello.ui;
+
+import othello.Board;
+import othello.Piece;
+import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+// Ca ban co la mot Canvas duy nhat: khong co node nao cho tung o, moi lan ve chi to lai cac o
+// bi thay doi. Dung cho ban co lon, noi GridPane voi hang tram Button ton nhieu bo nho va thoi gian layout.
+class CanvasBoardRenderer implements BoardRenderer {
+    private static final Color BOARD = Color.web("#006400");
+    private static final Color NORMAL_CELL = Color.web("#2E8B57");
+    private static final Color HINT_CELL = Color.web("#ADFF2F");
+    private static final int GAP = 2;
+    private static final int PADDING = 8;
+
+    private final int rows;
+    private final int columns;
+    private final int cellSize;
+    private final Canvas canvas;
+    private final GraphicsContext g;
+    private final Piece[] shown;
+    private final boolean[] drawn; // o da duoc ve it nhat mot lan (shown null chua du de biet)
+    private final boolean[] hinted;
+    private final boolean[] nextHints;
+    private final int[] hintSquares;
+    private int hintCount;
+    private final String[] labels;
+    private final int[] labelSquares;
+    private int labelCount;
+    private boolean disabled;
+
+    private long cellUpdates;
+
+    CanvasBoardRenderer(int rows, int columns, int cellSize, CellListener listener) {
+        this.rows = rows;
+        this.columns = columns;
+        this.cellSize = cellSize;
+        int squares = rows * columns;
+        shown = new Piece[squares];
+        drawn = new boolean[squares];
+        hinted = new boolean[squares];
+        nextHints = new boolean[squares];
+        hintSquares = new int[squares];
+        labels = new String[squares];
+        labelSquares = new int[squares];
+
+        canvas = new Canvas(2 * PADDING + columns * (cellSize + GAP) - GAP,
+                2 * PADDING + rows * (cellSize + GAP) - GAP);
+        g = canvas.getGraphicsContext2D();
+        g.setFill(BOARD);
+        g.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        g.setStroke(Color.BLACK);
+        g.setLineWidth(2);
+        g.strokeRect(1, 1, canvas.getWidth() - 2, canvas.getHeight() - 2);
+        g.setFont(Font.font(Math.max(8, cellSize / 3.0)));
+        g.setTextAlign(TextAlignment.CENTER);
+
+        canvas.setOnMouseClicked(e -> {
+            if (disabled) return;
+            int col = (int) ((e.getX() - PADDING) / (cellSize + GAP));
+            int row = (int) ((e.getY() - PADDING) / (cellSize + GAP));
+            if (e.getX() >= PADDING && e.getY() >= PADDING && row < rows && col < columns) {
+                listener.cellClicked(row, col);
+            }
+        });
+    }
+
+    @Override
+    public Node getNode() {
+        return canvas;
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getColumns() {
+        return columns;
+    }
+
+    @Override
+    public void drawAll(Board board) {
+        for (int square = 0; square < shown.length; square++) {
+            drawSquare(board, square);
+        }
+    }
+
+    @Override
+    public void drawSquares(Board board, int[] squares) {
+        for (int square : squares) {
+            drawSquare(board, square);
+        }
+    }
+
+    private void drawSquare(Board board, int square) {
+        Piece piece = board.getPiece(square / columns, square % columns);
+        if (drawn[square] && piece == shown[square]) return;
+        shown[square] = piece;
+        drawn[square] = true;
+        paint(square);
+    }
+
+    @Override
+    public void showHints(int[] squares, int count) {
+        for (int i = 0; i < count; i++) {
+            nextHints[squares[i]] = true;
+        }
+        for (int i = 0; i < hintCount; i++) {
+            int square = hintSquares[i];
+            if (!nextHints[square]) {
+                hinted[square] = false;
+                paint(square);
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            int square = squares[i];
+            nextHints[square] = false;
+            if (!hinted[square]) {
+                hinted[square] = true;
+                paint(square);
+            }
+        }
+        System.arraycopy(squares, 0, hintSquares, 0, count);
+        hintCount = count;
+    }
+
+    @Override
+    public void showScores(int[] squares, String[] newLabels, int count) {
+        for (int i = 0; i < count; i++) {
+            nextHints[squares[i]] = true;
+        }
+        for (int i = 0; i < labelCount; i++) {
+            int square = labelSquares[i];
+            if (!nextHints[square]) {
+                labels[square] = null;
+                paint(square);
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            int square = squares[i];
+            nextHints[square] = false;
+            if (!newLabels[i].equals(labels[square])) {
+                labels[square] = newLabels[i];
+                paint(square);
+            }
+        }
+        System.arraycopy(squares, 0, labelSquares, 0, count);
+        labelCount = count;
+    }
+
+    // to lai mot o: nen, vien, quan va chu (neu co)
+    private void paint(int square) {
+        double x = PADDING + (square % columns) * (cellSize + GAP);
+        double y = PADDING + (square / columns) * (cellSize + GAP);
+        g.setFill(hinted[square] ? HINT_CELL : NORMAL_CELL);
+        g.fillRect(x, y, cellSize, cellSize);
+        g.setStroke(Color.BLACK);
+        g.setLineWidth(1);
+        g.strokeRect(x + 0.5, y + 0.5, cellSize - 1, cellSize - 1);
+
+        Piece piece = shown[square];
+        if (piece != null) {
+            double radius = cellSize * 0.35;
+            double cx = x + cellSize / 2.0;
+            double cy = y + cellSize / 2.0;
+            g.setFill(OthelloView.colorOf(piece));
+            g.fillOval(cx - radius, cy - radius, 2 * radius, 2 * radius);
+            g.setStroke(piece == Piece.BLACK ? Color.web("#222") : Color.web("#ccc"));
+            g.setLineWidth(2);
+            g.strokeOval(cx - radius, cy - radius, 2 * radius, 2 * radius);
+        }
+        if (labels[square] != null) {
+            g.setFill(Color.BLACK);
+            g.fillText(labels[square], x + cellSize / 2.0, y + cellSize * 0.6);
+        }
+        cellUpdates++;
+    }
+
+    @Override
+    public void setDisabled(boolean disabled) {
+        this.disabled = disabled;
+    }
+
+    @Override
+    public long getNodesCreated() {
+        return 1;
+    }
+
+    @Override
+    public long getCellUpdates() {
+        return cellUpdates;
+    }
+}
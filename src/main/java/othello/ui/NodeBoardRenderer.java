@@ -0,0 +1,190 @@
+package othello.ui;
+
+import othello.Board;
+import othello.Piece;
+import javafx.geometry.Insets;
+import javafx.scene.Node;
+import javafx.scene.control.Button;
+import javafx.scene.layout.GridPane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Circle;
+
+// Moi o la mot Button; moi o co san mot Circle duoc dung lai (chi doi mau) thay vi tao moi moi lan ve.
+// Nho trang thai da ve cua tung o de bo qua cac o khong doi.
+class NodeBoardRenderer implements BoardRenderer {
+    private static final String NORMAL_CELL = "-fx-background-color: #2E8B57; -fx-border-color: black; -fx-border-width: 1;";
+    private static final String HINT_CELL = "-fx-background-color: #ADFF2F; -fx-border-color: black; -fx-border-width: 1;";
+
+    private final int rows;
+    private final int columns;
+    private final GridPane pane = new GridPane();
+    private final Button[] cells;
+    private final Circle[] discs;
+    private final Piece[] shown; // quan dang hien o moi o
+    private final boolean[] hinted;
+    private final boolean[] nextHints; // tam cho showHints/showScores
+    private final int[] hintSquares; // cac o dang to goi y, de xoa ma khong duyet ca ban co
+    private int hintCount;
+    private final String[] labels; // chu dang hien tren moi o (null = khong co)
+    private final int[] labelSquares;
+    private int labelCount;
+
+    private long nodesCreated;
+    private long cellUpdates;
+
+    NodeBoardRenderer(int rows, int columns, int cellSize, CellListener listener) {
+        this.rows = rows;
+        this.columns = columns;
+        int squares = rows * columns;
+        cells = new Button[squares];
+        discs = new Circle[squares];
+        shown = new Piece[squares];
+        hinted = new boolean[squares];
+        nextHints = new boolean[squares];
+        hintSquares = new int[squares];
+        labels = new String[squares];
+        labelSquares = new int[squares];
+
+        pane.setPadding(new Insets(8));
+        pane.setHgap(2);
+        pane.setVgap(2);
+        pane.setStyle("-fx-background-color: #006400; -fx-border-color: black; -fx-border-width: 2;");
+        nodesCreated++;
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                Button cell = new Button();
+                cell.setPrefSize(cellSize, cellSize);
+                cell.setMinSize(cellSize, cellSize);
+                cell.setMaxSize(cellSize, cellSize);
+                cell.setStyle(NORMAL_CELL);
+                final int row = r;
+                final int col = c;
+                cell.setOnAction(e -> listener.cellClicked(row, col));
+
+                Circle disc = new Circle(cellSize * 0.35);
+                disc.setStrokeWidth(2);
+                discs[r * columns + c] = disc;
+                cells[r * columns + c] = cell;
+                pane.add(cell, c, r);
+                nodesCreated += 2;
+            }
+        }
+    }
+
+    @Override
+    public Node getNode() {
+        return pane;
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getColumns() {
+        return columns;
+    }
+
+    @Override
+    public void drawAll(Board board) {
+        for (int square = 0; square < cells.length; square++) {
+            drawSquare(board, square);
+        }
+    }
+
+    @Override
+    public void drawSquares(Board board, int[] squares) {
+        for (int square : squares) {
+            drawSquare(board, square);
+        }
+    }
+
+    private void drawSquare(Board board, int square) {
+        Piece piece = board.getPiece(square / columns, square % columns);
+        if (piece == shown[square]) return;
+        shown[square] = piece;
+        cellUpdates++;
+
+        Button cell = cells[square];
+        if (piece == null) {
+            cell.setGraphic(null);
+            return;
+        }
+        Circle disc = discs[square];
+        disc.setFill(OthelloView.colorOf(piece));
+        disc.setStroke(piece == Piece.BLACK ? Color.web("#222") : Color.web("#ccc"));
+        if (cell.getGraphic() != disc) {
+            cell.setGraphic(disc);
+        }
+    }
+
+    @Override
+    public void showHints(int[] squares, int count) {
+        for (int i = 0; i < count; i++) {
+            nextHints[squares[i]] = true;
+        }
+        // chi doi style cua o vua het goi y va o vua co goi y
+        for (int i = 0; i < hintCount; i++) {
+            int square = hintSquares[i];
+            if (!nextHints[square]) {
+                hinted[square] = false;
+                cells[square].setStyle(NORMAL_CELL);
+                cellUpdates++;
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            int square = squares[i];
+            nextHints[square] = false;
+            if (!hinted[square]) {
+                hinted[square] = true;
+                cells[square].setStyle(HINT_CELL);
+                cellUpdates++;
+            }
+        }
+        System.arraycopy(squares, 0, hintSquares, 0, count);
+        hintCount = count;
+    }
+
+    @Override
+    public void showScores(int[] squares, String[] newLabels, int count) {
+        for (int i = 0; i < count; i++) {
+            nextHints[squares[i]] = true;
+        }
+        for (int i = 0; i < labelCount; i++) {
+            int square = labelSquares[i];
+            if (!nextHints[square]) {
+                labels[square] = null;
+                cells[square].setText(null);
+                cellUpdates++;
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            int square = squares[i];
+            nextHints[square] = false;
+            if (!newLabels[i].equals(labels[square])) {
+                labels[square] = newLabels[i];
+                cells[square].setText(newLabels[i]);
+                cellUpdates++;
+            }
+        }
+        System.arraycopy(squares, 0, labelSquares, 0, count);
+        labelCount = count;
+    }
+
+    @Override
+    public void setDisabled(boolean disabled) {
+        // mot lan cho ca ban co; cac Button con thua ke trang thai tu GridPane
+        pane.setDisable(disabled);
+    }
+
+    @Override
+    public long getNodesCreated() {
+        return nodesCreated;
+    }
+
+    @Override
+    public long getCellUpdates() {
+        return cellUpdates;
+    }
+}
@@ -0,0 +1,407 @@
+package othello.ui;
+
+import othello.AIPlayer;
+import othello.Analysis;
+import othello.BitBoard;
+import othello.Board;
+import othello.EngineService;
+import othello.GameDatabase;
+import othello.GameRecord;
+import othello.GameState;
+import othello.HumanPlayer;
+import othello.LargeBitBoard;
+import othello.OpeningBook;
+import othello.PatternEvaluator;
+import othello.Piece;
+import othello.Player;
+import othello.Ponderer;
+import othello.SearchStats;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.util.Duration;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+public class OthelloController {
+    private Board board;
+    private GameState state; // tinh mot lan sau moi nuoc di: nuoc di hop le, so quan, bo luot, ket thuc
+    private OthelloView view;
+    private Player player1;
+    private Player player2;
+    private Player currentPlayer;
+    private boolean isAIMode = false;
+    private boolean gameOver = false;
+
+    // AI tim nuoc di tren luong rieng; searchGeneration tang moi khi huy de bo qua ket qua cu
+    private static final long AI_MOVE_DELAY_MS = 500;
+    private final EngineService engine = new EngineService();
+    private CompletableFuture<SearchStats> aiSearch;
+    private int searchGeneration;
+
+    // Trung binh/Kho: AI tim truoc nuoc di tiep theo trong luc nguoi choi suy nghi
+    private final Ponderer ponderer = new Ponderer(engine);
+    private boolean ponderingEnabled;
+    private boolean ponderAdopted; // ket qua ponder dang duoc dung lam nuoc di cua AI
+
+    // Phan tich: diem moi nuoc di cua ben dang di, tim sau dan tren luong nen khi khong phai luot AI.
+    // Bat dau lai moi khi co the doi; analysisGeneration bo qua ket qua cua lan phan tich cu.
+    private final AIPlayer analyst = new AIPlayer("Analysis", Piece.BLACK, 1, AIPlayer.Algorithm.PVS);
+    private boolean analysisEnabled;
+    private CompletableFuture<Analysis> analysis;
+    private int analysisGeneration;
+
+    // sach khai cuoc 8x8 (tao bang othello.tools.BookBuilder); null neu khong co file
+    private static final String BOOK_PROPERTY = "othello.book";
+    private static final String DEFAULT_BOOK = "book/opening.book";
+    private final OpeningBook openingBook = loadOpeningBook();
+
+    // cac van da ket thuc duoc ghi them vao co so du lieu van co (doc bang othello.tools.GameDatabaseTool)
+    private static final String GAMES_PROPERTY = "othello.games";
+    private static final String DEFAULT_GAMES = "games/games.db";
+    private int[] playedMoves = new int[0]; // cac o da di trong van hien tai, theo thu tu
+    private int playedCount;
+
+    public OthelloController(OthelloView view) {
+        this.view = view;
+    }
+
+    // change signature to accept algorithm (ignored for PvP)
+    public void initializeGame(int size, boolean aiMode, int depth, AIPlayer.Algorithm algorithm) {
+        initializeGame(size, aiMode, depth, algorithm, 0);
+    }
+
+    // thinkTimeMs > 0: AI searches by iterative deepening for that long per move instead of to a fixed depth
+    public void initializeGame(int size, boolean aiMode, int depth, AIPlayer.Algorithm algorithm, long thinkTimeMs) {
+        cancelAISearch();
+        this.isAIMode = aiMode;
+        this.ponderingEnabled = aiMode && depth >= 4;
+        this.gameOver = false;
+        this.board = size == BitBoard.SIZE ? new BitBoard()
+                : size <= LargeBitBoard.MAX_SIZE ? new LargeBitBoard(size, size)
+                : new Board(size, size);
+
+        // Khởi tạo người chơi
+        closeAIPlayer();
+        this.player1 = new HumanPlayer("Player 1", Piece.BLACK);
+
+        if (isAIMode) {
+            AIPlayer aiPlayer = new AIPlayer("AI", Piece.WHITE, depth, algorithm);
+            aiPlayer.setThinkTime(thinkTimeMs);
+            if (size == BitBoard.SIZE) {
+                aiPlayer.setOpeningBook(openingBook);
+                aiPlayer.setPatternEvaluator(PatternEvaluator.standard());
+                // muc De (depth 2) khong giai tan cuoc van, de con thua duoc
+                if (depth >= 4 || thinkTimeMs > 0) {
+                    aiPlayer.setEndgameSolver(AIPlayer.DEFAULT_ENDGAME_EMPTIES, false);
+                }
+            }
+            this.player2 = aiPlayer;
+        } else {
+            this.player2 = new HumanPlayer("Player 2", Piece.WHITE);
+        }
+
+        this.currentPlayer = player1;
+        analyst.setPatternEvaluator(size == BitBoard.SIZE ? PatternEvaluator.standard() : null);
+
+        // Đặt 4 quân khởi đầu
+        board.setPiece(size / 2 - 1, size / 2 - 1, Piece.WHITE);
+        board.setPiece(size / 2, size / 2, Piece.WHITE);
+        board.setPiece(size / 2, size / 2 - 1, Piece.BLACK);
+        board.setPiece(size / 2 - 1, size / 2, Piece.BLACK);
+
+        state = GameState.of(board, Piece.BLACK);
+        playedMoves = new int[size * size];
+        playedCount = 0;
+        view.updateBoard(board);
+        view.updateStatus(state);
+        view.enableBoard();
+        view.showValidMoveHints(state);
+        restartAnalysis();
+    }
+
+    public void handlePlayerMove(int row, int col) {
+        if (gameOver) {
+            return;
+        }
+
+        Piece piece = currentPlayer.getPiece();
+        int square = row * board.getColumns() + col;
+
+        if (!state.isLegal(square)) {
+            view.showInvalidMoveAlert();
+            return;
+        }
+
+        int[] changed = changedSquares(row, col, piece);
+        board.placePiece(row, col, piece);
+        playedMoves[playedCount++] = square;
+        view.updateSquares(board, changed);
+        CompletableFuture<SearchStats> pondered = ponderer.take(board, square);
+
+        // Đổi lượt (hoặc bỏ lượt nếu đối thủ không có nước đi)
+        if (!nextTurn(piece)) {
+            return;
+        }
+
+        // Nếu là chế độ AI và đến lượt AI
+        if (isAIMode && currentPlayer instanceof AIPlayer) {
+            view.disableBoard();
+            if (pondered != null) {
+                // doan dung nuoc di: dung tiep ket qua da tim (hoac dang tim)
+                ponderAdopted = true;
+                awaitAIMove(pondered, searchGeneration);
+            } else {
+                startAISearch();
+            }
+        }
+    }
+
+    // Tim nuoc di cua AI tren EngineService, khong chan luong JavaFX
+    private void startAISearch() {
+        AIPlayer aiPlayer = (AIPlayer) currentPlayer;
+        int generation = ++searchGeneration;
+        awaitAIMove(engine.search(aiPlayer, board, progress -> Platform.runLater(() -> {
+            if (generation == searchGeneration) {
+                view.showSearchProgress(progress, board.getColumns());
+            }
+        })), generation);
+    }
+
+    // Cho ket qua tim kiem roi di nuoc cua AI (sau it nhat AI_MOVE_DELAY_MS)
+    private void awaitAIMove(CompletableFuture<SearchStats> search, int generation) {
+        long startedAt = System.nanoTime();
+        aiSearch = search;
+        aiSearch.thenAccept(stats -> Platform.runLater(() -> {
+            if (generation != searchGeneration) return;
+            aiSearch = null;
+            ponderAdopted = false;
+            // Delay để người chơi thấy nước đi của mình
+            long remainingMs = AI_MOVE_DELAY_MS - (System.nanoTime() - startedAt) / 1_000_000;
+            if (remainingMs <= 0) {
+                makeAIMove(stats);
+                return;
+            }
+            PauseTransition pause = new PauseTransition(Duration.millis(remainingMs));
+            pause.setOnFinished(e -> {
+                if (generation == searchGeneration) makeAIMove(stats);
+            });
+            pause.play();
+        })).exceptionally(e -> {
+            Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+            if (!(cause instanceof CancellationException)) {
+                cause.printStackTrace();
+            }
+            return null;
+        });
+    }
+
+    // Huy ngay luot tim kiem cua AI dang chay (New Game / Reset)
+    public void cancelAISearch() {
+        cancelAnalysis();
+        searchGeneration++;
+        ponderer.cancel();
+        ponderAdopted = false;
+        if (aiSearch != null) {
+            aiSearch.cancel(false);
+            aiSearch = null;
+        }
+        view.clearSearchProgress();
+    }
+
+    // Tiep tuc luot AI (hoac phan tich) neu da huy ma van co khong doi (vd: dong hop thoai New Game)
+    public void resumeAISearch() {
+        if (!gameOver && isAIMode && currentPlayer instanceof AIPlayer && aiSearch == null) {
+            startAISearch();
+        } else if (state != null) {
+            restartAnalysis();
+        }
+    }
+
+    public void setAnalysis(boolean enabled) {
+        this.analysisEnabled = enabled;
+        restartAnalysis();
+    }
+
+    // Huy phan tich cu va phan tich vi tri hien tai neu dang bat, van chua ket thuc va khong phai luot AI
+    private void restartAnalysis() {
+        cancelAnalysis();
+        if (!analysisEnabled || gameOver || state == null || (isAIMode && currentPlayer instanceof AIPlayer)) {
+            return;
+        }
+        int generation = ++analysisGeneration;
+        analysis = engine.analyze(analyst, board, state.toMove(), board.countPieces(null),
+                result -> Platform.runLater(() -> {
+                    if (generation == analysisGeneration) {
+                        view.showAnalysis(result);
+                    }
+                }));
+        analysis.exceptionally(e -> {
+            Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+            if (!(cause instanceof CancellationException)) {
+                cause.printStackTrace();
+            }
+            return null;
+        });
+    }
+
+    private void cancelAnalysis() {
+        analysisGeneration++;
+        if (analysis != null) {
+            analysis.cancel(false);
+            analysis = null;
+        }
+        view.clearAnalysis();
+    }
+
+    public void shutdown() {
+        cancelAISearch();
+        closeAIPlayer();
+        engine.close();
+    }
+
+    // AI PARALLEL giu mot nhom luong rieng; dong lai khi doi van hoac thoat
+    private void closeAIPlayer() {
+        if (player2 instanceof AIPlayer aiPlayer) {
+            aiPlayer.close();
+        }
+    }
+
+    private void makeAIMove(SearchStats stats) {
+        if (gameOver) return;
+        view.clearSearchProgress();
+
+        if (currentPlayer instanceof AIPlayer) {
+            AIPlayer aiPlayer = (AIPlayer) currentPlayer;
+            int[] move = stats.move();
+
+            if (move != null) {
+                int[] changed = changedSquares(move[0], move[1], aiPlayer.getPiece());
+                board.placePiece(move[0], move[1], aiPlayer.getPiece());
+                playedMoves[playedCount++] = move[0] * board.getColumns() + move[1];
+                view.updateSquares(board, changed);
+
+                if (!nextTurn(aiPlayer.getPiece())) {
+                    return;
+                }
+
+                if (currentPlayer instanceof AIPlayer) {
+                    // nguoi choi phai bo luot: AI di tiep
+                    startAISearch();
+                } else {
+                    view.enableBoard();
+                    if (ponderingEnabled) {
+                        startPondering(aiPlayer, stats);
+                    }
+                }
+            }
+        }
+    }
+
+    // Tim truoc vi tri sau nuoc di ma AI doan nguoi choi se di; tien trinh chi hien khi doan dung
+    private void startPondering(AIPlayer aiPlayer, SearchStats stats) {
+        int generation = searchGeneration;
+        ponderAdopted = false;
+        ponderer.start(aiPlayer, board, stats, progress -> Platform.runLater(() -> {
+            if (generation == searchGeneration && ponderAdopted) {
+                view.showSearchProgress(progress, board.getColumns());
+            }
+        }));
+    }
+
+    // bat/tat pondering (mac dinh bat o muc Trung binh va Kho)
+    public void setPondering(boolean enabled) {
+        this.ponderingEnabled = enabled;
+        if (!enabled) {
+            ponderer.cancel();
+        }
+    }
+
+    public boolean checkGameEnd() {
+        return state.over();
+    }
+
+    // Trang thai sau nuoc di cua 'mover': luot thuoc ve nguoi co nuoc di (bo luot neu doi thu khong co).
+    // Tra ve false khi van co ket thuc (da goi endGame).
+    private boolean nextTurn(Piece mover) {
+        state = GameState.of(board, mover.flip());
+        currentPlayer = state.toMove() == player1.getPiece() ? player1 : player2;
+        if (state.over()) {
+            endGame();
+            return false;
+        }
+        view.updateStatus(state);
+        view.showValidMoveHints(state);
+        restartAnalysis();
+        return true;
+    }
+
+    // o se dat quan va cac o se bi lat, tinh truoc khi dat de view chi ve lai cac o nay
+    private int[] changedSquares(int row, int col, Piece piece) {
+        int[] flipped = board.flippedSquares(row, col, piece);
+        int[] changed = Arrays.copyOf(flipped, flipped.length + 1);
+        changed[flipped.length] = row * board.getColumns() + col;
+        return changed;
+    }
+
+    private void endGame() {
+        gameOver = true;
+        ponderer.cancel();
+        cancelAnalysis();
+        saveGame();
+        int blackCount = state.blackCount();
+        int whiteCount = state.whiteCount();
+
+        String winner;
+        if (state.winner() == Piece.BLACK) {
+            winner = "QUÂN ĐEN THẮNG";
+        } else if (state.winner() == Piece.WHITE) {
+            winner = "QUÂN TRẮNG THẮNG";
+        } else {
+            winner = "HÒA";
+        }
+        view.updateStatus(state);
+        // khong con ai di duoc: xoa cac goi y con lai
+        view.showValidMoveHints(state);
+        view.showGameOverAlert(winner, blackCount, whiteCount);
+    }
+
+    private void saveGame() {
+        if (board.getRows() > GameRecord.MAX_SIZE || board.getColumns() > GameRecord.MAX_SIZE) return;
+        GameRecord game = GameRecord.of(board.getRows(), board.getColumns(), playedMoves, playedCount,
+                state.blackCount() - state.whiteCount());
+        try {
+            GameDatabase.append(Path.of(System.getProperty(GAMES_PROPERTY, DEFAULT_GAMES)), game);
+        } catch (IOException | IllegalArgumentException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static OpeningBook loadOpeningBook() {
+        Path file = Path.of(System.getProperty(BOOK_PROPERTY, DEFAULT_BOOK));
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            return OpeningBook.open(file);
+        } catch (IOException | IllegalArgumentException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    public Board getBoard() {
+        return board;
+    }
+
+    public GameState getState() {
+        return state;
+    }
+
+
+}
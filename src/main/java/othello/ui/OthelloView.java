@@ -1,5 +1,11 @@
-package othello;
-
+package othello.ui;
+
+import othello.AIPlayer;
+import othello.Analysis;
+import othello.Board;
+import othello.GameState;
+import othello.Piece;
+import othello.SearchProgress;
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.geometry.Insets;
@@ -7,37 +13,35 @@ import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.BorderPane;
-import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
-import javafx.scene.shape.Circle;
 import javafx.stage.Stage;
 
 public class OthelloView extends Application {
     private Stage stage;
-    private GridPane boardPane;
-    private Button[][] cellButtons;
+    private BorderPane root;
+    private BoardRenderer renderer;
     private final int DEFAULT_SIZE = 8;
     private final int CELL_SIZE = 64;
+    // tu kich thuoc nay tro len ve ban co bang Canvas (co the ep bang -Dothello.renderer=canvas|nodes)
+    private static final int CANVAS_MIN_SIZE = 11;
     private OthelloController controller;
     private Label statusLabel;
     private Label scoreLabel;
-
-    private static final String NORMAL_CELL = "-fx-background-color: #2E8B57; -fx-border-color: black; -fx-border-width: 1;";
-    private static final String HINT_CELL = "-fx-background-color: #ADFF2F; -fx-border-color: black; -fx-border-width: 1;";
+    private Label aiProgressLabel;
+    private Label analysisLabel;
 
     @Override
     public void start(Stage primaryStage) {
         this.stage = primaryStage;
         this.controller = new OthelloController(this);
 
-        BorderPane root = new BorderPane();
+        root = new BorderPane();
         MenuBar menuBar = createMenuBar();
         HBox statusBar = createStatusBar();
 
         showBoardUI(DEFAULT_SIZE, DEFAULT_SIZE);
-        root.setCenter(boardPane);
         VBox topContainer = new VBox(menuBar, statusBar);
         root.setTop(topContainer);
 
@@ -53,12 +57,18 @@ public class OthelloView extends Application {
     private MenuBar createMenuBar() {
         MenuItem itemNew = new MenuItem("New Game");
         MenuItem itemExit = new MenuItem("Exit");
+        // diem cua moi nuoc di hop le, tim tren luong nen va sau dan khi nguoi choi suy nghi
+        CheckMenuItem itemAnalysis = new CheckMenuItem("Phân tích nước đi");
+        itemAnalysis.setOnAction(e -> controller.setAnalysis(itemAnalysis.isSelected()));
 
-        itemNew.setOnAction(e -> showGameModeDialog());
+        itemNew.setOnAction(e -> {
+            controller.cancelAISearch();
+            showGameModeDialog();
+        });
         itemExit.setOnAction(e -> Platform.exit());
 
         Menu gameMenu = new Menu("Game");
-        gameMenu.getItems().addAll(itemNew, new SeparatorMenuItem(), itemExit);
+        gameMenu.getItems().addAll(itemNew, itemAnalysis, new SeparatorMenuItem(), itemExit);
 
         MenuBar menuBar = new MenuBar();
         menuBar.getMenus().add(gameMenu);
@@ -79,9 +89,18 @@ public class OthelloView extends Application {
 
         Button resetButton = new Button("Reset Game");
         resetButton.setStyle("-fx-font-size: 12px;");
-        resetButton.setOnAction(e -> showGameModeDialog());
+        resetButton.setOnAction(e -> {
+            controller.cancelAISearch();
+            showGameModeDialog();
+        });
+
+        aiProgressLabel = new Label();
+        aiProgressLabel.setStyle("-fx-font-size: 12px; -fx-text-fill: #555;");
 
-        statusBar.getChildren().addAll(statusLabel, scoreLabel, resetButton);
+        analysisLabel = new Label();
+        analysisLabel.setStyle("-fx-font-size: 12px; -fx-text-fill: #555;");
+
+        statusBar.getChildren().addAll(statusLabel, scoreLabel, aiProgressLabel, analysisLabel, resetButton);
         return statusBar;
     }
 
@@ -114,6 +133,8 @@ public class OthelloView extends Application {
                 controller.initializeGame(DEFAULT_SIZE, false, 4, AIPlayer.Algorithm.MINIMAX);
             } else if (response == pvaButton) {
                 showDifficultyDialog();
+            } else {
+                controller.resumeAISearch();
             }
         });
     }
@@ -138,12 +159,16 @@ public class OthelloView extends Application {
         rbAlphaBeta.setToggleGroup(algoGroup);
         rbMinimax.setSelected(true); // default
 
+        // time-per-move instead of a fixed depth
+        CheckBox cbTimed = new CheckBox("Giới hạn thời gian suy nghĩ thay vì độ sâu (0.1s / 0.5s / 2s)");
+
         VBox content = new VBox(10);
         content.setPadding(new Insets(20));
         content.getChildren().addAll(
                 new Label("Dễ: AI suy nghĩ ít (Depth 2)"),
                 new Label("Trung bình: AI suy nghĩ vừa (Depth 4)"),
                 new Label("Khó: AI suy nghĩ nhiều (Depth 6)"),
+                cbTimed,
                 new Separator(),
                 new Label("Chọn thuật toán cho AI:"),
                 rbMinimax,
@@ -153,105 +178,129 @@ public class OthelloView extends Application {
 
         dialog.showAndWait().ifPresent(response -> {
             int depth;
+            long thinkTimeMs;
             if (response == easyButton) {
                 depth = 2;
+                thinkTimeMs = 100;
             } else if (response == mediumButton) {
                 depth = 4;
+                thinkTimeMs = 500;
             } else if (response == hardButton) {
                 depth = 6;
+                thinkTimeMs = 2000;
             } else {
+                controller.resumeAISearch();
                 return;
             }
             AIPlayer.Algorithm algorithm = rbMinimax.isSelected() ? AIPlayer.Algorithm.MINIMAX : AIPlayer.Algorithm.ALPHABETA;
-            controller.initializeGame(DEFAULT_SIZE, true, depth, algorithm);
+            controller.initializeGame(DEFAULT_SIZE, true, depth, algorithm, cbTimed.isSelected() ? thinkTimeMs : 0);
         });
     }
 
     public void showBoardUI(int rows, int cols) {
-        boardPane = new GridPane();
-        boardPane.setPadding(new Insets(8));
-        boardPane.setHgap(2);
-        boardPane.setVgap(2);
-        boardPane.setStyle("-fx-background-color: #006400; -fx-border-color: black; -fx-border-width: 2;");
+        String kind = System.getProperty("othello.renderer",
+                Math.max(rows, cols) >= CANVAS_MIN_SIZE ? "canvas" : "nodes");
+        // o nho lai tren ban co lon de ca ban co van vua man hinh
+        int cellSize = Math.max(rows, cols) <= DEFAULT_SIZE ? CELL_SIZE
+                : Math.max(24, CELL_SIZE * DEFAULT_SIZE / Math.max(rows, cols));
+        BoardRenderer.CellListener listener = (row, col) -> controller.handlePlayerMove(row, col);
+        renderer = kind.equals("canvas") ? new CanvasBoardRenderer(rows, cols, cellSize, listener)
+                : new NodeBoardRenderer(rows, cols, cellSize, listener);
+        root.setCenter(renderer.getNode());
+        if (stage.getScene() != null) {
+            stage.sizeToScene();
+        }
+    }
 
-        cellButtons = new Button[rows][cols];
+    // ve lai ca ban co (van chi cham vao cac o khac voi lan ve truoc); dung khi bat dau van moi
+    public void updateBoard(Board board) {
+        if (renderer.getRows() != board.getRows() || renderer.getColumns() != board.getColumns()) {
+            showBoardUI(board.getRows(), board.getColumns());
+        }
+        BoardRenderEvent event = beginRender("all", board.getRows() * board.getColumns());
+        renderer.drawAll(board);
+        endRender(event);
+    }
 
-        for (int r = 0; r < rows; r++) {
-            for (int c = 0; c < cols; c++) {
-                Button cell = new Button();
-                cell.setPrefSize(CELL_SIZE, CELL_SIZE);
-                cell.setMinSize(CELL_SIZE, CELL_SIZE);
-                cell.setMaxSize(CELL_SIZE, CELL_SIZE);
-                cell.setStyle(NORMAL_CELL);
+    // ve lai cac o vua doi sau mot nuoc di: o vua dat va cac quan bi lat
+    public void updateSquares(Board board, int[] squares) {
+        BoardRenderEvent event = beginRender("squares", squares.length);
+        renderer.drawSquares(board, squares);
+        endRender(event);
+    }
 
-                final int row = r;
-                final int col = c;
+    // mau quan co tren giao dien (loi engine khong phu thuoc JavaFX)
+    static Color colorOf(Piece piece) {
+        return piece == Piece.BLACK ? Color.BLACK : Color.WHITESMOKE;
+    }
 
-                cell.setOnAction(e -> controller.handlePlayerMove(row, col));
+    // event JFR cho mot lan ve: thoi gian, so o ve lai va so node tao moi
+    private BoardRenderEvent beginRender(String kind, int squares) {
+        BoardRenderEvent event = new BoardRenderEvent();
+        if (!event.isEnabled()) return event;
+        event.renderer = renderer.getClass().getSimpleName();
+        event.kind = kind;
+        event.squares = squares;
+        event.cellUpdates = renderer.getCellUpdates();
+        event.nodesCreated = renderer.getNodesCreated();
+        event.begin();
+        return event;
+    }
 
-                cellButtons[r][c] = cell;
-                boardPane.add(cell, c, r);
-            }
-        }
+    private void endRender(BoardRenderEvent event) {
+        if (!event.isEnabled()) return;
+        event.end();
+        event.cellUpdates = renderer.getCellUpdates() - event.cellUpdates;
+        event.nodesCreated = renderer.getNodesCreated() - event.nodesCreated;
+        event.commit();
     }
 
-    public void updateBoard(Board board) {
-        for (int r = 0; r < board.getRows(); r++) {
-            for (int c = 0; c < board.getColumns(); c++) {
-                updateCellVisual(r, c, board.getPiece(r, c));
-            }
-        }
+    public void updateStatus(GameState state) {
+        String playerName = playerName(state.toMove());
+        String pass = state.passed() ? " (" + playerName(state.toMove().flip()) + " bỏ lượt)" : "";
+        statusLabel.setText("Lượt: " + playerName + pass);
+        scoreLabel.setText("Đen: " + state.blackCount() + " | Trắng: " + state.whiteCount());
     }
 
-    private void updateCellVisual(int row, int col, Piece piece) {
-        if (row < 0 || row >= cellButtons.length ||
-                col < 0 || col >= cellButtons[0].length) return;
-
-        Button cell = cellButtons[row][col];
-
-        if (piece == null) {
-            cell.setGraphic(null);
-            cell.setStyle(NORMAL_CELL);
-        } else {
-            Circle circle = new Circle(CELL_SIZE * 0.35);
-            circle.setFill(piece.getColor());
-            circle.setStroke(piece == Piece.BLACK ? Color.web("#222") : Color.web("#ccc"));
-            circle.setStrokeWidth(2);
-            cell.setGraphic(circle);
-            cell.setStyle(NORMAL_CELL);
-        }
+    private static String playerName(Piece piece) {
+        return piece == Piece.BLACK ? "ĐEN" : "TRẮNG";
     }
 
-    public void updateStatus(Piece currentPiece, int blackCount, int whiteCount) {
-        String playerName = (currentPiece == Piece.BLACK) ? "ĐEN" : "TRẮNG";
-        statusLabel.setText("Lượt: " + playerName);
-        scoreLabel.setText("Đen: " + blackCount + " | Trắng: " + whiteCount);
+    public void showSearchProgress(SearchProgress progress, int columns) {
+        if (progress.bestMove() < 0) return;
+        aiProgressLabel.setText("AI: độ sâu " + progress.depth() + " | nước tốt nhất ("
+                + (progress.bestMove() / columns + 1) + ", " + (progress.bestMove() % columns + 1) + ")");
     }
 
-    public void showValidMoveHints(Board board, Piece currentPlayer) {
-        clearAllHints();
-        for (int r = 0; r < board.getRows(); r++) {
-            for (int c = 0; c < board.getColumns(); c++) {
-                if (board.getPiece(r, c) == null && board.canPlacePiece(r, c, currentPlayer)) {
-                    showHintAtCell(r, c);
-                }
-            }
-        }
+    public void clearSearchProgress() {
+        aiProgressLabel.setText("");
     }
 
-    private void showHintAtCell(int row, int col) {
-        cellButtons[row][col].setStyle(HINT_CELL);
+    public void showValidMoveHints(GameState state) {
+        int[] moves = state.moves();
+        BoardRenderEvent event = beginRender("hints", moves.length);
+        renderer.showHints(moves, moves.length);
+        endRender(event);
     }
 
-    private void clearAllHints() {
-        for (int r = 0; r < cellButtons.length; r++) {
-            for (int c = 0; c < cellButtons[0].length; c++) {
-                if (controller.getBoard() != null &&
-                        controller.getBoard().getPiece(r, c) == null) {
-                    cellButtons[r][c].setStyle(NORMAL_CELL);
-                }
-            }
+    // diem cua tung nuoc di (theo ben dang di) ve tren o goi y: so quan neu danh gia bang mau,
+    // con lai la diem heuristic
+    public void showAnalysis(Analysis analysis) {
+        int[] moves = analysis.moves();
+        String[] labels = new String[moves.length];
+        for (int i = 0; i < moves.length; i++) {
+            labels[i] = analysis.unitsPerDisc() > 0 ? String.format("%+.1f", analysis.discs(i))
+                    : String.format("%+d", analysis.values()[i]);
         }
+        BoardRenderEvent event = beginRender("scores", moves.length);
+        renderer.showScores(moves, labels, moves.length);
+        endRender(event);
+        analysisLabel.setText("Phân tích: độ sâu " + analysis.depth());
+    }
+
+    public void clearAnalysis() {
+        renderer.showScores(new int[0], new String[0], 0);
+        analysisLabel.setText("");
     }
 
     public void showInvalidMoveAlert() {
@@ -303,19 +352,16 @@ public class OthelloView extends Application {
     }
 
     public void disableBoard() {
-        for (int r = 0; r < cellButtons.length; r++) {
-            for (int c = 0; c < cellButtons[0].length; c++) {
-                cellButtons[r][c].setDisable(true);
-            }
-        }
+        renderer.setDisabled(true);
     }
 
     public void enableBoard() {
-        for (int r = 0; r < cellButtons.length; r++) {
-            for (int c = 0; c < cellButtons[0].length; c++) {
-                cellButtons[r][c].setDisable(false);
-            }
-        }
+        renderer.setDisabled(false);
+    }
+
+    @Override
+    public void stop() {
+        controller.shutdown();
     }
 
     public static void main(String[] args) {
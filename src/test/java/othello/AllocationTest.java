@@ -0,0 +1,55 @@
+package othello;
+
+import org.junit.jupiter.api.Test;
+import othello.tools.BenchmarkPositions;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The sequential AIPlayer.searchBestMove allocates nothing once warmed up.
+class AllocationTest {
+    private static final int DEPTH = 4;
+
+    @Test
+    void minimaxAllocatesNothing() {
+        assertEquals(0, allocatedBytes(AIPlayer.Algorithm.MINIMAX));
+    }
+
+    @Test
+    void alphaBetaAllocatesNothing() {
+        assertEquals(0, allocatedBytes(AIPlayer.Algorithm.ALPHABETA));
+    }
+
+    // bytes allocated by one search of each benchmark position, after warming up (PARALLEL clones
+    // boards and allocates tasks at split nodes by design, so it is not checked)
+    private static long allocatedBytes(AIPlayer.Algorithm algorithm) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        List<BenchmarkPositions.Position> positions = List.of(
+                BenchmarkPositions.opening().get(0),
+                BenchmarkPositions.midgame().get(0),
+                BenchmarkPositions.endgame().get(0));
+        AIPlayer[] players = new AIPlayer[positions.size()];
+        for (int p = 0; p < players.length; p++) {
+            players[p] = new AIPlayer("AI", positions.get(p).toMove(), DEPTH, algorithm);
+        }
+        // warm up so the buffers and tables exist and the JIT has compiled the search
+        for (int i = 0; i < 20; i++) {
+            for (int p = 0; p < players.length; p++) {
+                players[p].searchBestMove(positions.get(p).board(), DEPTH);
+            }
+        }
+
+        long threadId = Thread.currentThread().threadId();
+        long overhead = threads.getThreadAllocatedBytes(threadId);
+        overhead = threads.getThreadAllocatedBytes(threadId) - overhead;
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int p = 0; p < players.length; p++) {
+            players[p].searchBestMove(positions.get(p).board(), DEPTH);
+        }
+        return threads.getThreadAllocatedBytes(threadId) - before - overhead;
+    }
+}